@@ -9,7 +9,8 @@ import java.lang.annotation.Target;
  *
  * フィールドに付与する JSON-path
  * セパレータ文字 "." をエスケープする場合は、"\" でエスケープする。
- * AutoPathSerializer 使用時に効果がある。
+ * AutoPathSerializer, AutoPathTypeAdapterFactory 使用時に効果がある。
+ * AutoPathTypeAdapterFactory は、同じ階層構造の JSON からの読込みにも効果がある。
  *
  * @since 4.17
  */
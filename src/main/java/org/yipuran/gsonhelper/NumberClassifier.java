@@ -0,0 +1,83 @@
+package org.yipuran.gsonhelper;
+
+import java.math.BigDecimal;
+
+/**
+ * JSON数値トークンの型判定.
+ * <PRE>
+ * JsonReader の nextString() や、JsonPrimitive の getAsNumber().toString() で得られる数値トークンの文字列を
+ * １回の走査で判定して、値を表せる型の Number にする。Gson の toString() による再シリアライズは行わない。
+ *   ・小数点、指数を含まない整数で Long の範囲    → Long （parseNarrow では、Integer の範囲なら Integer）
+ *   ・小数点、指数を含まない整数で Long の範囲外  → BigDecimal
+ *   ・小数点、指数を含む                          → Double
+ *   ・小数点、指数を含み Double で値を表せない    → BigDecimal
+ *       有効桁（先頭、末尾の 0 を除く仮数部の桁数）が 17桁を超える、
+ *       Double の範囲外（無限大）、0 でない仮数部が 0.0 または非正規化数になる（アンダーフロー）
+ * </PRE>
+ * @since 4.25
+ */
+public final class NumberClassifier{
+	private static final BigDecimal LONG_MIN = BigDecimal.valueOf(Long.MIN_VALUE);
+	private static final BigDecimal LONG_MAX = BigDecimal.valueOf(Long.MAX_VALUE);
+	private NumberClassifier(){}
+
+	/**
+	 * 数値トークン → Long, Double, BigDecimal
+	 * @param token 数値トークン文字列
+	 * @return Long, Double, BigDecimal のいずれか
+	 * @throws NumberFormatException 数値ではない場合
+	 */
+	public static Number parse(String token){
+		return parse(token, false);
+	}
+	/**
+	 * 数値トークン → Integer, Long, Double, BigDecimal
+	 * @param token 数値トークン文字列
+	 * @return Integer, Long, Double, BigDecimal のいずれか
+	 * @throws NumberFormatException 数値ではない場合
+	 */
+	public static Number parseNarrow(String token){
+		return parse(token, true);
+	}
+
+	private static Number parse(String s, boolean narrow){
+		int len = s.length();
+		int start = len > 0 && s.charAt(0)=='-' ? 1 : 0;
+		if (start==len) throw new NumberFormatException("empty number: " + s);
+		long v = 0;
+		for(int i=start;i < len;i++){
+			char c = s.charAt(i);
+			if (c < '0' || c > '9') return decimal(s, start);
+			v = v * 10 + (c - '0');
+		}
+		if (len - start > 18){
+			BigDecimal b = new BigDecimal(s);
+			if (b.compareTo(LONG_MIN) < 0 || b.compareTo(LONG_MAX) > 0) return b;
+			return b.longValue();
+		}
+		if (start > 0) v = -v;
+		if (narrow && Integer.MIN_VALUE <= v && v <= Integer.MAX_VALUE) return (int)v;
+		return v;
+	}
+	/**
+	 * 小数点、指数を含む数値トークン → Double, BigDecimal
+	 */
+	private static Number decimal(String s, int start){
+		int digits = 0;
+		int zeros = 0;
+		for(int i=start;i < s.length();i++){
+			char c = s.charAt(i);
+			if (c=='e' || c=='E') break;
+			if (c=='0'){
+				if (digits > 0) zeros++;
+			}else if(c > '0' && c <= '9'){
+				digits += zeros + 1;
+				zeros = 0;
+			}
+		}
+		double d = Double.parseDouble(s);
+		if (digits==0) return d;
+		if (digits > 17 || Double.isInfinite(d) || Math.abs(d) < Double.MIN_NORMAL) return new BigDecimal(s);
+		return d;
+	}
+}
@@ -0,0 +1,118 @@
+package org.yipuran.gsonhelper;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * 配列要素の並列変換パイプライン.
+ * <PRE>
+ * 呼出しスレッドで ElementSource から配列要素（JsonElement、または要素をまとめた batch）を読込み、
+ * ExecutorService で S → T の変換を並列に実行する。
+ * 変換中の要素数は queueSize までで、超える場合は読込みを止めて、変換結果の受け渡しを先に行う。
+ * 変換結果は、呼出しスレッドで渡す。ordered=true の場合は読込んだ順、false の場合は変換が終わった順。
+ * 途中で終了する場合は、cancel() で変換中の要素を取り消す。ExecutorService は、終了（shutdown）しない。
+ *
+ * JsonArrayParser、JsonSequenceParser の並列変換と、JsonView の readParallel で使用する。
+ * </PRE>
+ * @param <S> 読込んだ要素
+ * @param <T> 変換結果
+ * @since 4.25
+ */
+public final class ParallelElementPipeline<S, T>{
+	private final ElementSource<S> source;
+	private final Function<S, T> binder;
+	private final ExecutorService executor;
+	private final CompletionService<T> completion;
+	private final int queueSize;
+	private final boolean ordered;
+	private final Deque<Future<T>> pending = new ArrayDeque<>();
+	private boolean eof;
+
+	/**
+	 * 配列要素の読込み.
+	 * @param <S> 読込んだ要素
+	 */
+	@FunctionalInterface
+	public interface ElementSource<S>{
+		/**
+		 * 次の配列要素を読込む.
+		 * @return 配列要素、終わりの場合は null
+		 * @throws IOException
+		 */
+		S next() throws IOException;
+	}
+
+	/**
+	 * コンストラクタ.
+	 * @param source 配列要素の読込み
+	 * @param binder S → T 変換
+	 * @param executor 変換を実行する ExecutorService
+	 * @param queueSize 変換中にする要素数の上限
+	 * @param ordered true=読込んだ順に渡す
+	 */
+	public ParallelElementPipeline(ElementSource<S> source, Function<S, T> binder
+			, ExecutorService executor, int queueSize, boolean ordered){
+		if (queueSize < 1) throw new IllegalArgumentException("queueSize must be positive");
+		this.source = source;
+		this.binder = binder;
+		this.executor = executor;
+		this.queueSize = queueSize;
+		this.ordered = ordered;
+		completion = ordered ? null : new ExecutorCompletionService<>(executor);
+	}
+	/**
+	 * 次の変換結果を渡す.
+	 * @param action 変換結果の Consumer
+	 * @return false=全ての要素を渡し終わった
+	 * @throws IOException
+	 */
+	public boolean next(Consumer<? super T> action) throws IOException{
+		while(!eof && pending.size() < queueSize){
+			S s = source.next();
+			if (s==null){
+				eof = true;
+				break;
+			}
+			pending.add(ordered ? executor.submit(()->binder.apply(s)) : completion.submit(()->binder.apply(s)));
+		}
+		if (pending.isEmpty()) return false;
+		action.accept(get(ordered ? pending.poll() : take()));
+		return true;
+	}
+	/**
+	 * 変換中の要素を取り消す.
+	 */
+	public void cancel(){
+		pending.forEach(f->f.cancel(true));
+		pending.clear();
+	}
+	private Future<T> take(){
+		try{
+			Future<T> f = completion.take();
+			pending.remove(f);
+			return f;
+		}catch(InterruptedException e){
+			Thread.currentThread().interrupt();
+			throw new RuntimeException(e.getMessage(), e);
+		}
+	}
+	private T get(Future<T> future){
+		try{
+			return future.get();
+		}catch(InterruptedException e){
+			Thread.currentThread().interrupt();
+			throw new RuntimeException(e.getMessage(), e);
+		}catch(ExecutionException e){
+			if (e.getCause() instanceof RuntimeException) throw (RuntimeException)e.getCause();
+			throw new RuntimeException(e.getCause().getMessage(), e.getCause());
+		}
+	}
+}
@@ -0,0 +1,132 @@
+package org.yipuran.gsonhelper.array;
+
+import java.io.Serializable;
+import java.util.zip.CRC32;
+
+/**
+ * JSON配列解析の再開位置.
+ * <PRE>
+ * JsonArrayParser#execute(Path, long, Consumer, Consumer) が、解析中に定期的に通知する再開位置。
+ * 通知した時点で、getCount() 個の配列要素の Consumer 実行が終わっていて、
+ * JsonArrayParser#resume に指定すると、ファイルの getOffset() の位置から解析を再開する。
+ * 再開時にファイルが変わっていないかを、ファイルのバイト数、更新日時、getOffset() の前後 DIGEST_BYTES バイトの
+ * CRC32 で確認する。
+ * 永続化する場合は、Serializable で保存するか、６つの値を保存して of で復元する。
+ * </PRE>
+ * @since 4.25
+ */
+public final class ArrayCheckpoint implements Serializable{
+	private static final long serialVersionUID = 1L;
+	/** getDigest() の対象、getOffset() の前後のバイト数 */
+	public static final int DIGEST_BYTES = 32;
+	private final long fileSize;
+	private final long lastModified;
+	private final long offset;
+	private final long index;
+	private final long count;
+	private final long digest;
+
+	private ArrayCheckpoint(long fileSize, long lastModified, long offset, long index, long count, long digest){
+		this.fileSize = fileSize;
+		this.lastModified = lastModified;
+		this.offset = offset;
+		this.index = index;
+		this.count = count;
+		this.digest = digest;
+	}
+	/**
+	 * インスタンス生成.
+	 * @param fileSize 解析したファイルのバイト数
+	 * @param lastModified 解析したファイルの更新日時（エポックミリ秒）
+	 * @param offset 次の配列要素を読むファイルのバイト位置
+	 * @param index 次の配列要素のインデックス
+	 * @param count Consumer 実行した配列要素の数
+	 * @param digest offset の前後 DIGEST_BYTES バイトの CRC32
+	 * @return ArrayCheckpoint
+	 */
+	public static ArrayCheckpoint of(long fileSize, long lastModified, long offset, long index, long count, long digest){
+		return new ArrayCheckpoint(fileSize, lastModified, offset, index, count, digest);
+	}
+	/**
+	 * ファイルの位置の再開位置を生成.
+	 */
+	static ArrayCheckpoint of(MappedJsonInput in, long lastModified, long offset, long index, long count){
+		return new ArrayCheckpoint(in.size(), lastModified, offset, index, count, digest(in, offset));
+	}
+	/**
+	 * ファイルのバイト数、更新日時が再開位置のファイルと同じか確認する.
+	 * @throws IllegalArgumentException ファイルのバイト数、更新日時が異なる場合、再開位置がファイルの範囲外の場合
+	 */
+	void verifyFile(MappedJsonInput in, long lastModified){
+		if (fileSize != in.size()){
+			throw new IllegalArgumentException("file size is not match checkpoint : " + in.size() + " " + this);
+		}
+		if (this.lastModified != lastModified){
+			throw new IllegalArgumentException("last modified time is not match checkpoint : " + lastModified + " " + this);
+		}
+		if (offset < 0 || offset > fileSize){
+			throw new IllegalArgumentException("checkpoint offset is out of file : " + this);
+		}
+	}
+	/**
+	 * 再開位置の前後のバイトが再開位置のファイルと同じか確認する.
+	 * @throws IllegalArgumentException 再開位置の前後のバイトが異なる場合
+	 */
+	void verifyContent(MappedJsonInput in){
+		if (digest != digest(in, offset)){
+			throw new IllegalArgumentException("file content is not match checkpoint : " + this);
+		}
+	}
+	private static long digest(MappedJsonInput in, long offset){
+		CRC32 crc = new CRC32();
+		crc.update(in.bytes(Math.max(0, offset - DIGEST_BYTES), Math.min(in.size(), offset + DIGEST_BYTES)));
+		return crc.getValue();
+	}
+	/**
+	 * 解析したファイルのバイト数、再開時にファイルが変わっていないかの確認に使う。
+	 * @return バイト数
+	 */
+	public long getFileSize(){
+		return fileSize;
+	}
+	/**
+	 * 解析したファイルの更新日時、再開時にファイルが変わっていないかの確認に使う。
+	 * @return エポックミリ秒
+	 */
+	public long getLastModified(){
+		return lastModified;
+	}
+	/**
+	 * 次の配列要素を読むファイルのバイト位置
+	 * @return バイト位置
+	 */
+	public long getOffset(){
+		return offset;
+	}
+	/**
+	 * 次の配列要素のインデックス（オブジェクト以外の要素も数える）
+	 * @return インデックス
+	 */
+	public long getIndex(){
+		return index;
+	}
+	/**
+	 * Consumer 実行した配列要素の数
+	 * @return 配列要素の数
+	 */
+	public long getCount(){
+		return count;
+	}
+	/**
+	 * getOffset() の前後 DIGEST_BYTES バイトの CRC32、再開時にファイルが変わっていないかの確認に使う。
+	 * @return CRC32
+	 */
+	public long getDigest(){
+		return digest;
+	}
+	@Override
+	public String toString(){
+		return "ArrayCheckpoint[fileSize=" + fileSize + ", lastModified=" + lastModified + ", offset=" + offset
+			+ ", index=" + index + ", count=" + count + ", digest=" + Long.toHexString(digest) + "]";
+	}
+}
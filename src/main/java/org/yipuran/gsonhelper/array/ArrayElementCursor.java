@@ -0,0 +1,141 @@
+package org.yipuran.gsonhelper.array;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.Arrays;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+/**
+ * 解析対象配列の要素の位置まで JsonReader を読み進めるカーソル.
+ * <PRE>
+ * JSONトークンを読みながら、開いているオブジェクト／配列の ArrayTargetTree の節を保持して、値の位置毎に
+ * 子節があるかを判定する。JsonReader#getPath() による JSONパス文字列の生成と正規表現の判定は行わない。
+ * JsonReader の他、JsonStructureReader を実装する JsonByteScanner も辿る。
+ * 対象配列までの JSONパス上に無い値と、対象配列のオブジェクト以外の要素は、JsonReader#skipValue() で
+ * 読み飛ばし、文字列のデコードや、配下のトークン毎の処理を行わない。
+ * next() が true を返した時、JsonReader は対象配列の要素であるオブジェクトの BEGIN_OBJECT の位置にあり、
+ * 呼出し側は、target() で対象配列を判定して、そのオブジェクトを読込む（Gson#fromJson など）。
+ * 対象配列の要素のオブジェクトは、配下に別の対象配列があっても、上位の対象配列の要素として渡す。
+ * </PRE>
+ */
+final class ArrayElementCursor{
+	private final JsonStructureReader reader;
+	private final ArrayTargetTree.Node root;
+	private ArrayTargetTree.Node[] nodes = new ArrayTargetTree.Node[32];
+	private boolean[] arrays = new boolean[32];
+	private int[] counts = new int[32];
+	private int depth;
+	private String name;
+	private final boolean stopAtArray;
+	private ArrayTargetTree.Node arrayNode;
+	private boolean delivered;
+
+	ArrayElementCursor(JsonReader reader, ArrayTargetTree tree){
+		this(JsonStructureReader.of(reader), tree.root(), false);
+	}
+	/**
+	 * コンストラクタ.
+	 * @param reader JsonStructureReader
+	 * @param root ルートの値の JSONパス木の節
+	 * @param stopAtArray true=対象配列の要素ではなく、対象配列の BEGIN_ARRAY の位置で止まる
+	 */
+	ArrayElementCursor(JsonStructureReader reader, ArrayTargetTree.Node root, boolean stopAtArray){
+		this.reader = reader;
+		this.root = root;
+		this.stopAtArray = stopAtArray;
+	}
+	/**
+	 * 次の対象配列要素の位置まで読み進める.
+	 * @return true=対象配列要素のオブジェクトの位置（stopAtArray の場合は対象配列の位置）、false=ドキュメントの終わり
+	 * @throws IOException
+	 */
+	boolean next() throws IOException{
+		if (delivered){
+			delivered = false;
+			valueDone();
+		}
+		while(true){
+			JsonToken token = reader.peek();
+			switch(token){
+				case END_ARRAY:
+					reader.endArray();
+					exit();
+					continue;
+				case END_OBJECT:
+					reader.endObject();
+					exit();
+					continue;
+				case NAME:
+					name = reader.nextName();
+					continue;
+				case END_DOCUMENT:
+					if (depth > 0) throw new EOFException("End of input");
+					return false;
+				default:
+			}
+			if (token==JsonToken.BEGIN_OBJECT && target() >= 0){
+				delivered = true;
+				return true;
+			}
+			ArrayTargetTree.Node child = child();
+			if (stopAtArray && child != null && child.target >= 0 && token==JsonToken.BEGIN_ARRAY){
+				arrayNode = child;
+				delivered = true;
+				return true;
+			}
+			if (child != null && token==JsonToken.BEGIN_ARRAY){
+				enter(child, true);
+				reader.beginArray();
+			}else if(child != null && token==JsonToken.BEGIN_OBJECT){
+				enter(child, false);
+				reader.beginObject();
+			}else{
+				reader.skipValue();
+				valueDone();
+			}
+		}
+	}
+	/**
+	 * stopAtArray で next() が位置した対象配列の JSONパス木の節.
+	 * @return 対象配列の節
+	 */
+	ArrayTargetTree.Node arrayNode(){
+		return arrayNode;
+	}
+	/**
+	 * next() で位置した要素の対象配列の番号.
+	 * @return ArrayTargetTree に登録した順の番号、対象配列の直下でなければ -1
+	 */
+	int target(){
+		return depth > 0 && arrays[depth-1] ? nodes[depth-1].target : -1;
+	}
+	/**
+	 * 現在の位置の値の JSONパス木の節
+	 * @return 節、対象配列までの JSONパス上に無い場合は null
+	 */
+	private ArrayTargetTree.Node child(){
+		if (depth==0) return root;
+		int level = depth-1;
+		return arrays[level] ? nodes[level].index(counts[level]) : nodes[level].name(name);
+	}
+	private void enter(ArrayTargetTree.Node node, boolean array){
+		if (depth==arrays.length){
+			nodes = Arrays.copyOf(nodes, depth*2);
+			arrays = Arrays.copyOf(arrays, depth*2);
+			counts = Arrays.copyOf(counts, depth*2);
+		}
+		nodes[depth] = node;
+		arrays[depth] = array;
+		counts[depth] = 0;
+		depth++;
+	}
+	private void exit(){
+		nodes[--depth] = null;
+		valueDone();
+	}
+	private void valueDone(){
+		if (depth > 0 && arrays[depth-1]) counts[depth-1]++;
+	}
+}
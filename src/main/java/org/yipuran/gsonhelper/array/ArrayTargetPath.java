@@ -0,0 +1,88 @@
+package org.yipuran.gsonhelper.array;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 解析対象配列の JSONパス.
+ * <PRE>
+ * JsonArrayParseBuilder#path で指定された JSONキーを、ルートからの階層毎に
+ * キー名または配列インデックスの並びに分解して保持する。
+ * "itemlist[2]" のような末尾の [n] は配列インデックスの階層、"group.itemlist" は２つのキー名の階層になる。
+ * 階層が無い（JSONキー指定なし）場合は、ルートの配列が対象になる。
+ * </PRE>
+ */
+final class ArrayTargetPath{
+	private final String[] names;
+	private final int[] indexes;
+
+	private ArrayTargetPath(List<String> names, List<Integer> indexes){
+		this.names = names.toArray(new String[names.size()]);
+		this.indexes = new int[indexes.size()];
+		for(int i=0;i < this.indexes.length;i++){
+			this.indexes[i] = indexes.get(i);
+		}
+	}
+	/**
+	 * JSONキーのリスト → ArrayTargetPath
+	 * @param keys ルートから順に並べた JSONキー
+	 * @return ArrayTargetPath
+	 */
+	static ArrayTargetPath of(List<String> keys){
+		List<String> names = new ArrayList<>();
+		List<Integer> indexes = new ArrayList<>();
+		for(String key:keys){
+			for(String s:key.split("\\.")){
+				int b = s.indexOf('[');
+				String name = b < 0 ? s : s.substring(0, b);
+				if (!name.isEmpty() || b < 0){
+					names.add(name);
+					indexes.add(-1);
+				}
+				while(b >= 0){
+					int e = s.indexOf(']', b);
+					if (e < 0) throw new IllegalArgumentException("Illegal path : " + key);
+					names.add(null);
+					indexes.add(Integer.parseInt(s.substring(b+1, e)));
+					b = s.indexOf('[', e);
+				}
+			}
+		}
+		return new ArrayTargetPath(names, indexes);
+	}
+	/**
+	 * 階層の数
+	 * @return 階層の数
+	 */
+	int depth(){
+		return names.length;
+	}
+	/**
+	 * 階層のキー名
+	 * @param level ルートからの階層 0～
+	 * @return キー名、配列インデックスの階層は null
+	 */
+	String name(int level){
+		return names[level];
+	}
+	/**
+	 * 階層の配列インデックス
+	 * @param level ルートからの階層 0～
+	 * @return 配列インデックス、キー名の階層は -1
+	 */
+	int index(int level){
+		return indexes[level];
+	}
+	@Override
+	public String toString(){
+		StringBuilder sb = new StringBuilder("$");
+		for(int i=0;i < names.length;i++){
+			if (names[i]==null){
+				sb.append('[').append(indexes[i]).append(']');
+			}else{
+				sb.append('.').append(names[i]);
+			}
+		}
+		return sb.toString();
+	}
+}
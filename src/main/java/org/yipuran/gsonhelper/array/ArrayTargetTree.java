@@ -0,0 +1,71 @@
+package org.yipuran.gsonhelper.array;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 解析対象配列の JSONパス木.
+ * <PRE>
+ * 複数の ArrayTargetPath を、ルートからの階層毎にキー名または配列インデックスで分岐する木にまとめる。
+ * 共通の上位階層を持つ対象配列は、同じ節を共有し、１回の読込みで全ての対象配列を判定する。
+ * 対象配列の節は、登録順の番号（target）を持つ。
+ * </PRE>
+ */
+final class ArrayTargetTree{
+	private final Node root = new Node();
+
+	/** JSONパス木の節 */
+	static final class Node{
+		private Map<String, Node> names;
+		private Map<Integer, Node> indexes;
+		int target = -1;
+
+		/**
+		 * オブジェクトのキーの子節
+		 * @param name キー
+		 * @return 子節、対象配列までの JSONパス上に無い場合は null
+		 */
+		Node name(String name){
+			return names==null ? null : names.get(name);
+		}
+		/**
+		 * 配列要素の子節
+		 * @param index インデックス
+		 * @return 子節、対象配列までの JSONパス上に無い場合は null
+		 */
+		Node index(int index){
+			return indexes==null ? null : indexes.get(index);
+		}
+	}
+
+	/**
+	 * コンストラクタ.
+	 * @param targets 対象配列の JSONパス、登録順
+	 */
+	ArrayTargetTree(List<ArrayTargetPath> targets){
+		for(int t=0;t < targets.size();t++){
+			ArrayTargetPath path = targets.get(t);
+			Node node = root;
+			for(int i=0;i < path.depth();i++){
+				String name = path.name(i);
+				if (name==null){
+					if (node.indexes==null) node.indexes = new HashMap<>();
+					node = node.indexes.computeIfAbsent(path.index(i), k->new Node());
+				}else{
+					if (node.names==null) node.names = new HashMap<>();
+					node = node.names.computeIfAbsent(name, k->new Node());
+				}
+			}
+			if (node.target >= 0) throw new IllegalArgumentException("duplicate path : " + path);
+			node.target = t;
+		}
+	}
+	/**
+	 * ルートの節
+	 * @return ルートの節
+	 */
+	Node root(){
+		return root;
+	}
+}
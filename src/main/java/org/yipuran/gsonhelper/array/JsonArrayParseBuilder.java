@@ -2,9 +2,9 @@ package org.yipuran.gsonhelper.array;
 
 import java.lang.reflect.Type;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.function.Consumer;
 
 import com.google.gson.GsonBuilder;
 import com.google.gson.reflect.TypeToken;
@@ -22,12 +22,27 @@ import com.google.gson.reflect.TypeToken;
  * .execute(reader, t->{
  * 	// t=配列要素
  * });
+ *
+ * 複数の配列を１回の読込みで解析する場合は、route で JsonArrayRouteBuilder に切り替えて、他の配列を登録する。
+ * JsonArrayParser は配列要素を１つのクラス T で返す為、
+ * 配列毎に別のクラス、Consumer を持つ解析は、型パラメータを持たない JsonArrayRouteParser が行う。
+ *
+ * JsonArrayParseBuilder.<Order>of(gsonbuilder, Order.class)
+ * .path("export", "orders")
+ * .route(o->{
+ * 	// o=orders の配列要素
+ * })
+ * .route(Arrays.asList("export", "refunds"), Refund.class, r->{
+ * 	// r=refunds の配列要素
+ * })
+ * .create()
+ * .execute(reader);
  * </PRE>
  * @since 4.12
  */
 public final class JsonArrayParseBuilder<T>{
 	private GsonBuilder gsonbuilder;
-	private Stream<String> pathstream;
+	private List<String> pathlist = Collections.emptyList();
 	private Type type;
 	private JsonArrayParseBuilder(GsonBuilder gsonbuilder, Type type) {
 		this.gsonbuilder = gsonbuilder;
@@ -58,7 +73,7 @@ public final class JsonArrayParseBuilder<T>{
 	 */
 	public JsonArrayParseBuilder<T> path(List<String> pathlist) {
 		if (pathlist.size() < 1) throw new IllegalArgumentException("path is required!");
-		pathstream = pathlist.stream();
+		this.pathlist = pathlist;
 		return this;
 	}
 	/**
@@ -68,28 +83,32 @@ public final class JsonArrayParseBuilder<T>{
 	 */
 	public JsonArrayParseBuilder<T> path(String...path) {
 		if (path.length < 1) throw new IllegalArgumentException("path is required!");
-		pathstream = Arrays.asList(path).stream();
+		pathlist = Arrays.asList(path);
 		return this;
 	}
 	/**
 	 * JsonArrayReader生成
+	 * <PRE>
+	 * path を指定しない場合は、ルートの配列が解析対象になる。
+	 * </PRE>
 	 * @return JsonArrayParser
 	 */
 	public JsonArrayParser<T> create() {
-		String ptn = "^\\$\\." + pathstream
-		.map(e->e.replaceAll("\\.", "\\."))
-		.map(e->e.replaceAll("\\[", "\\\\["))
-		.map(e->e.replaceAll("\\]", "\\\\]"))
-		.map(e->e.replaceAll("\\-", "\\\\-"))
-		.map(e->e.replaceAll("\\+", "\\\\+"))
-		.map(e->e.replaceAll("\\*", "\\\\*"))
-		.map(e->e.replaceAll("\\$", "\\$"))
-		.map(e->e.replaceAll("\\^", "\\^"))
-		.map(e->e.replaceAll("\\?", "\\?"))
-		.map(e->e.replaceAll("\\{", "\\\\{"))
-		.map(e->e.replaceAll("\\}", "\\\\}"))
-		.collect(Collectors.joining("\\."))
-		+ "\\[\\d+\\]$";
-		return new JsonArrayParser<>(gsonbuilder, type, ptn);
+		return new JsonArrayParser<>(gsonbuilder, type, ArrayTargetPath.of(pathlist));
+	}
+	/**
+	 * 複数の配列の解析に切り替え.
+	 * <PRE>
+	 * この JsonArrayParseBuilder の GsonBuilder、path、配列要素のクラスと、指定した Consumer を
+	 * 最初の解析対象配列として登録した JsonArrayRouteBuilder を返す。
+	 * 続けて JsonArrayRouteBuilder#route で他の配列を登録して、create() で JsonArrayRouteParser を生成する。
+	 * path を指定しない場合は、ルートの配列が解析対象になる。
+	 * </PRE>
+	 * @param consumer Tクラスの Consumer
+	 * @return JsonArrayRouteBuilder
+	 * @since 4.25
+	 */
+	public JsonArrayRouteBuilder route(Consumer<T> consumer) {
+		return JsonArrayRouteBuilder.of(gsonbuilder).route(pathlist, type, consumer);
 	}
 }
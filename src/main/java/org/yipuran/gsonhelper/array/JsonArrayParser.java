@@ -1,17 +1,27 @@
 package org.yipuran.gsonhelper.array;
 
+import java.io.EOFException;
+import java.io.IOException;
 import java.lang.reflect.Type;
-import java.util.AbstractMap;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Spliterator;
 import java.util.Spliterators;
+import java.util.concurrent.ExecutorService;
 import java.util.function.Consumer;
-import java.util.regex.Pattern;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
+import org.yipuran.gsonhelper.ParallelElementPipeline;
+
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
 import com.google.gson.stream.JsonReader;
 import com.google.gson.stream.JsonToken;
 
@@ -66,6 +76,27 @@ import com.google.gson.stream.JsonToken;
  * JsonArrayParseBuilder.&lt;Item>of(gsonbuilder, TypeToken.get(Item.class).getType())
  * .path("group", "itemlist").create().forEach(System.out::println);
  *
+ * ファイルの解析（メモリマップ）：
+ * 　　Path を指定する execute、stream は、ファイルをメモリマップして UTF-8 のバイト列から直接解析する。
+ * 　　jsonArrayParser.execute(Paths.get("export.json"), t->{
+ * 　　　　// t = 配列要素
+ * 　　});
+ * 　　parallelStream(Path) は、配列要素の境界で分割できる並列 Stream を返す。
+ * 　　execute(Path, long, Consumer, Consumer) は、再開位置 ArrayCheckpoint を定期的に通知し、
+ * 　　resume で、再開位置からファイルをシークして解析を再開する。
+ *
+ * 解析の実行（batchSize 個ずつの List で Consumer 実行）：
+ * 　　jsonArrayParser.execute(jsonReader, 1000, list->{
+ * 　　　　// list = 配列要素 1000個ずつの List、Consumer 実行毎に再利用される
+ * 　　});
+ *
+ * 解析の並列実行：
+ * 　　ExecutorService を指定する execute、stream は、呼出しスレッドで配列要素を JsonElement として読込み、
+ * 　　T クラスへの変換を ExecutorService で並列に実行する。結果は呼出しスレッドで、記述順または変換が終わった順に渡す。
+ * 　　jsonArrayParser.execute(jsonReader, executor, 64, true, t->{
+ * 　　　　// t = 配列要素
+ * 　　});
+ *
  * 【注意】
  * JsonReader は、Readerとして読み進められる。
  *
@@ -77,12 +108,12 @@ import com.google.gson.stream.JsonToken;
 public final class JsonArrayParser<T>{
 	private Gson gson;
 	private Type type;
-	private Pattern targetptn;
+	private ArrayTargetTree target;
 
-	protected JsonArrayParser(GsonBuilder gsonbuilder, Type type, String pathptn) {
+	protected JsonArrayParser(GsonBuilder gsonbuilder, Type type, ArrayTargetPath target) {
 		gson = gsonbuilder.create();
 		this.type = type;
-		targetptn = Pattern.compile(pathptn);
+		this.target = new ArrayTargetTree(Collections.singletonList(target));
 	}
 	/**
 	 * 配列解析Consumer実行.
@@ -90,39 +121,10 @@ public final class JsonArrayParser<T>{
 	 * @param consumer Tクラスの Consumer
 	 */
 	public void execute(JsonReader reader, Consumer<T> consumer) {
-		boolean request = false;
 		try{
-			while((reader.hasNext() || reader.peek().equals(JsonToken.END_ARRAY)
-				|| reader.peek().equals(JsonToken.END_OBJECT)) && !reader.peek().equals(JsonToken.END_DOCUMENT)
-			){
-					JsonToken token = reader.peek();
-					if (token.equals(JsonToken.BEGIN_ARRAY)){
-						reader.beginArray();
-						if (targetptn.matcher(reader.getPath()).matches()){
-							request = true;
-						}
-					}else if(token.equals(JsonToken.END_ARRAY)){
-						reader.endArray();
-						if (request) request = false;
-					}else if(token.equals(JsonToken.BEGIN_OBJECT)){
-						if (request) {
-							consumer.accept(gson.fromJson(reader, type));
-						}else{
-							reader.beginObject();
-						}
-					}else if(token.equals(JsonToken.END_OBJECT)){
-						reader.endObject();
-					}else if(token.equals(JsonToken.NAME)){
-						reader.nextName();
-					}else if(token.equals(JsonToken.STRING)){
-						reader.nextString();
-					}else if(token.equals(JsonToken.NUMBER)){
-						reader.nextString();
-					}else if(token.equals(JsonToken.BOOLEAN)){
-						reader.nextBoolean();
-					}else if(token.equals(JsonToken.NULL)){
-						reader.nextNull();
-					}
+			ArrayElementCursor cursor = new ArrayElementCursor(reader, target);
+			while(cursor.next()){
+				consumer.accept(gson.fromJson(reader, type));
 			}
 		}catch(Exception ex){
 			throw new RuntimeException(ex.getMessage(), ex);
@@ -135,54 +137,263 @@ public final class JsonArrayParser<T>{
 	 * @since 4.15
 	 */
 	public Stream<T> stream(JsonReader reader){
+		ArrayElementCursor cursor = new ArrayElementCursor(reader, target);
+		Spliterator<T> spliterator = new Spliterators.AbstractSpliterator<T>(Long.MAX_VALUE, Spliterator.ORDERED){
+			@Override
+			public boolean tryAdvance(Consumer<? super T> action){
+				try{
+					if (!cursor.next()) return false;
+					action.accept(gson.fromJson(reader, type));
+					return true;
+				}catch(Exception ex){
+					throw new RuntimeException(ex.getMessage(), ex);
+				}
+			}
+		};
+		return StreamSupport.stream(spliterator, false);
+	}
+
+	/**
+	 * ファイルの配列解析Consumer実行（メモリマップ）.
+	 * <PRE>
+	 * ファイルをメモリマップして、UTF-8 のバイト列から直接 JSON の構造を辿る。
+	 * 解析対象配列以外は文字にデコードせずに読み飛ばし、解析対象配列の範囲だけをデコードして T クラスに変換する。
+	 * 2GB を超えるファイルも読込める。
+	 * </PRE>
+	 * @param path UTF-8 の JSON ファイル
+	 * @param consumer Tクラスの Consumer
+	 * @since 4.25
+	 */
+	public void execute(Path path, Consumer<T> consumer) {
+		try(MappedJsonInput in = MappedJsonInput.open(path)){
+			MappedElementReader elements = new MappedElementReader(in, target);
+			while(elements.next()){
+				consumer.accept(gson.fromJson(elements.reader(), type));
+			}
+		}catch(Exception ex){
+			throw new RuntimeException(ex.getMessage(), ex);
+		}
+	}
+	/**
+	 * ファイルの Stream 取得（メモリマップ）.
+	 * <PRE>
+	 * execute(Path, Consumer) と同様に、ファイルをメモリマップして読込む。
+	 * マップの参照は、最後の要素まで読むか、例外、または Stream の close で解放する。
+	 * </PRE>
+	 * @param path UTF-8 の JSON ファイル
+	 * @return 配列 JsonArray ＴのStream
+	 * @since 4.25
+	 */
+	public Stream<T> stream(Path path){
+		MappedJsonInput in;
+		try{
+			in = MappedJsonInput.open(path);
+		}catch(IOException ex){
+			throw new RuntimeException(ex.getMessage(), ex);
+		}
+		MappedElementReader elements = new MappedElementReader(in, target);
 		Spliterator<T> spliterator = new Spliterators.AbstractSpliterator<T>(Long.MAX_VALUE, Spliterator.ORDERED){
-			boolean request = false;
 			@Override
 			public boolean tryAdvance(Consumer<? super T> action){
 				try{
-					JsonToken token = reader.peek();
-					if (!reader.hasNext() && !token.equals(JsonToken.END_ARRAY) && token.equals(JsonToken.END_OBJECT) && !token.equals(JsonToken.END_DOCUMENT)) {
+					if (!elements.next()){
+						in.close();
 						return false;
 					}
-					switch(token){
-						case BEGIN_ARRAY:
-								reader.beginArray();
-								if (targetptn.matcher(reader.getPath()).matches()){
-									request = true;
-								}
-								break;
-						case END_ARRAY:
-								reader.endArray();
-								if (request) request = false;
-								break;
-						case BEGIN_OBJECT:
-								if (request) {
-									action.accept(gson.fromJson(reader, type));
-								}else{
-									reader.beginObject();
-								}
-								break;
-						case END_OBJECT:
-								reader.endObject();
-								break;
-						case NAME:
-								reader.nextName();
-								break;
-						case STRING:
-								reader.nextString();
-								break;
-						case NUMBER:
-								reader.nextString();
-								break;
-						case BOOLEAN:
-								reader.nextBoolean();
-								break;
-						case NULL:
-								reader.nextNull();
-								break;
-						case END_DOCUMENT:
-								return false;
+					action.accept(gson.fromJson(elements.reader(), type));
+					return true;
+				}catch(Exception ex){
+					in.close();
+					throw new RuntimeException(ex.getMessage(), ex);
+				}
+			}
+		};
+		return StreamSupport.stream(spliterator, false).onClose(in::close);
+	}
+	/**
+	 * ファイルの配列解析Consumer実行（再開位置の通知）.
+	 * <PRE>
+	 * execute(Path, Consumer) と同様にファイルをメモリマップして解析し、
+	 * 前回の通知から interval 個以上の配列要素の Consumer を実行する毎に、再開位置 ArrayCheckpoint を通知する。
+	 * 解析対象配列の終わりでも通知する。
+	 * 通知は、約 32KB 毎の配列要素の区切りで行う為、通知の間隔は interval より多くなる場合がある。
+	 * 再開位置を使う解析は、最初に見つかった解析対象配列だけが対象になる。
+	 * </PRE>
+	 * @param path UTF-8 の JSON ファイル
+	 * @param interval 通知する配列要素の数の間隔
+	 * @param checkpoint 再開位置の Consumer
+	 * @param consumer Tクラスの Consumer
+	 * @since 4.25
+	 */
+	public void execute(Path path, long interval, Consumer<ArrayCheckpoint> checkpoint, Consumer<T> consumer) {
+		resume(path, null, interval, checkpoint, consumer);
+	}
+	/**
+	 * ファイルの配列解析Consumer実行（再開位置から再開）.
+	 * <PRE>
+	 * execute(Path, long, Consumer, Consumer) で通知された再開位置 ArrayCheckpoint のファイルのバイト位置から解析を再開する。
+	 * ファイルの先頭から辿らずに、再開位置にシークして読込む。
+	 * ファイルのバイト数、更新日時、再開位置の前後のバイトが再開位置と異なる場合、
+	 * 再開位置が配列要素の区切り（要素の終わりの後に ',' または ']' が続く位置）でない場合は、解析せずに例外をスローする。
+	 * </PRE>
+	 * @param path UTF-8 の JSON ファイル
+	 * @param from 再開位置、null の場合は先頭から解析する
+	 * @param interval 通知する配列要素の数の間隔
+	 * @param checkpoint 再開位置の Consumer
+	 * @param consumer Tクラスの Consumer
+	 * @throws IllegalArgumentException ファイルが再開位置のファイルと異なる場合、再開位置が配列要素の区切りでない場合
+	 * @since 4.25
+	 */
+	public void resume(Path path, ArrayCheckpoint from, long interval, Consumer<ArrayCheckpoint> checkpoint, Consumer<T> consumer) {
+		if (interval < 1) throw new IllegalArgumentException("interval must be positive");
+		MappedJsonInput in;
+		long modified;
+		try{
+			modified = Files.getLastModifiedTime(path).toMillis();
+			in = MappedJsonInput.open(path);
+		}catch(IOException ex){
+			throw new RuntimeException(ex.getMessage(), ex);
+		}
+		JsonByteScanner scanner = new JsonByteScanner(in);
+		if (from != null){
+			try{
+				from.verifyFile(in, modified);
+				scanner.startInArray(from.getOffset());
+				scanner.peek();
+				from.verifyContent(in);
+			}catch(IOException ex){
+				in.close();
+				throw new IllegalArgumentException("checkpoint offset is not an array element boundary : " + from, ex);
+			}catch(IllegalArgumentException ex){
+				in.close();
+				throw ex;
+			}
+		}
+		try{
+			long index = 0;
+			long count = 0;
+			if (from==null){
+				if (!new ArrayElementCursor(scanner, target.root(), true).next()) return;
+				scanner.beginArray();
+			}else{
+				index = from.getIndex();
+				count = from.getCount();
+			}
+			long notified = count;
+			boolean sent = false;
+			JsonToken token;
+			while((token = scanner.peek()) != JsonToken.END_ARRAY){
+				if (token==JsonToken.END_DOCUMENT) throw new EOFException("End of input at byte " + scanner.position());
+				long start = scanner.position();
+				long end = start;
+				while(token != JsonToken.END_ARRAY && token != JsonToken.END_DOCUMENT && end - start < MappedArrayIndex.SEGMENT_BYTES){
+					end = scanner.valueEnd();
+					scanner.skipTo(end);
+					index++;
+					token = scanner.peek();
+				}
+				JsonReader reader = new JsonReader(new MappedUtf8Reader(in, start, end, true));
+				reader.beginArray();
+				while(reader.hasNext()){
+					if (reader.peek()==JsonToken.BEGIN_OBJECT){
+						consumer.accept(gson.fromJson(reader, type));
+						count++;
+					}else{
+						reader.skipValue();
+					}
+				}
+				if (count - notified >= interval){
+					checkpoint.accept(ArrayCheckpoint.of(in, modified, end, index, count));
+					notified = count;
+					sent = true;
+				}
+			}
+			if (!sent || notified != count) checkpoint.accept(ArrayCheckpoint.of(in, modified, scanner.position(), index, count));
+		}catch(Exception ex){
+			throw new RuntimeException(ex.getMessage(), ex);
+		}finally{
+			in.close();
+		}
+	}
+	/**
+	 * ファイルの並列 Stream 取得（メモリマップ）.
+	 * <PRE>
+	 * ファイルをメモリマップして、解析対象配列の要素の境界を構造だけの走査で先に求め、
+	 * 要素の境界で分割できる Spliterator の並列 Stream を返す。配列要素の T クラスへの変換は、分割した単位で並列に実行される。
+	 * Stream は ORDERED で、forEachOrdered や collect では配列の記述順になる。
+	 * マップの参照は、Stream の close で解放する（try-with-resources で使用すること）。
+	 * </PRE>
+	 * @param path UTF-8 の JSON ファイル
+	 * @return 配列 JsonArray ＴのStream（並列）
+	 * @since 4.25
+	 */
+	public Stream<T> parallelStream(Path path){
+		try{
+			MappedJsonInput in = MappedJsonInput.open(path);
+			MappedArrayIndex index;
+			try{
+				index = MappedArrayIndex.build(in, target);
+			}catch(IOException | RuntimeException ex){
+				in.close();
+				throw ex;
+			}
+			return StreamSupport.stream(new MappedArraySpliterator<T>(in, index, gson, type, 0, index.size()), true).onClose(in::close);
+		}catch(IOException ex){
+			throw new RuntimeException(ex.getMessage(), ex);
+		}
+	}
+	/**
+	 * 配列解析Consumer実行（batchSize 個ずつの List で実行）.
+	 * <PRE>
+	 * 配列要素を batchSize 個ずつ List に格納して Consumer を実行する。最後の List は batchSize 未満の場合がある。
+	 * List は Consumer の実行毎に再利用する為、Consumer の実行後に参照する場合は、コピーすること。
+	 * </PRE>
+	 * @param reader JsonReader
+	 * @param batchSize List に格納する要素数
+	 * @param consumer Tクラス List の Consumer
+	 * @since 4.25
+	 */
+	public void execute(JsonReader reader, int batchSize, Consumer<List<T>> consumer) {
+		if (batchSize < 1) throw new IllegalArgumentException("batchSize must be positive");
+		List<T> batch = new ArrayList<>(batchSize);
+		try{
+			ArrayElementCursor cursor = new ArrayElementCursor(reader, target);
+			while(cursor.next()){
+				batch.add(gson.fromJson(reader, type));
+				if (batch.size()==batchSize){
+					consumer.accept(batch);
+					batch.clear();
+				}
+			}
+			if (!batch.isEmpty()) consumer.accept(batch);
+		}catch(Exception ex){
+			throw new RuntimeException(ex.getMessage(), ex);
+		}
+	}
+	/**
+	 * batchSize 個ずつの List の Stream 取得.
+	 * <PRE>
+	 * 配列要素を batchSize 個ずつ List に格納した Stream を取得する。最後の List は batchSize 未満の場合がある。
+	 * Stream の要素は collect などで保持される為、List は要素毎に生成する。
+	 * </PRE>
+	 * @param reader JsonReader
+	 * @param batchSize List に格納する要素数
+	 * @return Tクラス List の Stream
+	 * @since 4.25
+	 */
+	public Stream<List<T>> batchStream(JsonReader reader, int batchSize){
+		if (batchSize < 1) throw new IllegalArgumentException("batchSize must be positive");
+		ArrayElementCursor cursor = new ArrayElementCursor(reader, target);
+		Spliterator<List<T>> spliterator = new Spliterators.AbstractSpliterator<List<T>>(Long.MAX_VALUE, Spliterator.ORDERED){
+			@Override
+			public boolean tryAdvance(Consumer<? super List<T>> action){
+				try{
+					List<T> batch = new ArrayList<>(batchSize);
+					while(batch.size() < batchSize && cursor.next()){
+						batch.add(gson.fromJson(reader, type));
 					}
+					if (batch.isEmpty()) return false;
+					action.accept(batch);
 					return true;
 				}catch(Exception ex){
 					throw new RuntimeException(ex.getMessage(), ex);
@@ -191,62 +402,101 @@ public final class JsonArrayParser<T>{
 		};
 		return StreamSupport.stream(spliterator, false);
 	}
+	/**
+	 * 配列解析Consumer実行（要素の変換を並列実行）.
+	 * <PRE>
+	 * 呼出しスレッドで配列要素を JsonElement として読込み、ExecutorService で T クラスへの変換を並列に実行する。
+	 * Consumer は呼出しスレッドで実行する。
+	 * </PRE>
+	 * @param reader JsonReader
+	 * @param executor 変換を実行する ExecutorService
+	 * @param queueSize 変換中にする要素数の上限
+	 * @param ordered true=JSONの記述順に Consumer 実行、false=変換が終わった順に Consumer 実行
+	 * @param consumer Tクラスの Consumer
+	 * @since 4.25
+	 */
+	public void execute(JsonReader reader, ExecutorService executor, int queueSize, boolean ordered, Consumer<T> consumer) {
+		ParallelElementPipeline<JsonElement, T> pipeline = pipeline(reader, executor, queueSize, ordered);
+		try{
+			while(pipeline.next(consumer));
+		}catch(Exception ex){
+			throw new RuntimeException(ex.getMessage(), ex);
+		}finally{
+			pipeline.cancel();
+		}
+	}
+	/**
+	 * Stream 取得（要素の変換を並列実行）.
+	 * <PRE>
+	 * Stream の要素を取得する時に、呼出しスレッドで配列要素を JsonElement として読込み、
+	 * ExecutorService で T クラスへの変換を並列に実行する。
+	 * 途中で終了する場合は、Stream を close すると変換中の要素を取り消す。
+	 * </PRE>
+	 * @param reader JsonReader
+	 * @param executor 変換を実行する ExecutorService
+	 * @param queueSize 変換中にする要素数の上限
+	 * @param ordered true=JSONの記述順、false=変換が終わった順（Stream は ORDERED の特性を持たない）
+	 * @return 配列 JsonArray ＴのStream
+	 * @since 4.25
+	 */
+	public Stream<T> stream(JsonReader reader, ExecutorService executor, int queueSize, boolean ordered){
+		ParallelElementPipeline<JsonElement, T> pipeline = pipeline(reader, executor, queueSize, ordered);
+		Spliterator<T> spliterator = new Spliterators.AbstractSpliterator<T>(Long.MAX_VALUE, ordered ? Spliterator.ORDERED : 0){
+			@Override
+			public boolean tryAdvance(Consumer<? super T> action){
+				try{
+					return pipeline.next(action);
+				}catch(Exception ex){
+					pipeline.cancel();
+					throw new RuntimeException(ex.getMessage(), ex);
+				}
+			}
+		};
+		return StreamSupport.stream(spliterator, false).onClose(pipeline::cancel);
+	}
+	private ParallelElementPipeline<JsonElement, T> pipeline(JsonReader reader, ExecutorService executor, int queueSize, boolean ordered){
+		ArrayElementCursor cursor = new ArrayElementCursor(reader, target);
+		return new ParallelElementPipeline<JsonElement, T>(()->cursor.next() ? JsonParser.parseReader(reader) : null
+			, je->gson.fromJson(je, type), executor, queueSize, ordered);
+	}
 
+	/**
+	 * JSON値イベントの Consumer 実行.
+	 * <PRE>
+	 * JSON の値（文字列、数値、真偽値、null）毎に、JSONパス、トークンの種類、値を持つ JsonValueEvent で Consumer を実行する。
+	 * JsonValueEvent は１つのインスタンスを再利用する為、Consumer 実行後も保持する場合は toEntry() などで取り出すこと。
+	 * </PRE>
+	 * @param reader JsonReader
+	 * @param consumer JsonValueEvent の Consumer
+	 * @since 4.25
+	 */
+	public void events(JsonReader reader, Consumer<JsonValueEvent> consumer){
+		JsonValueEvent event = new JsonValueEvent();
+		try{
+			while(event.advance(reader)){
+				consumer.accept(event);
+			}
+		}catch(Exception ex){
+			throw new RuntimeException(ex.getMessage(), ex);
+		}
+	}
 	/**
 	 * Json-Path,JsonValue の MapEntry Stream 取得.
+	 * <PRE>
+	 * JsonValueEvent#toEntry() の Stream、数値は Integer, Long, Double, BigDecimal のいずれかになる。
+	 * </PRE>
 	 * @param reader JsonReader
 	 * @return Map.Entryy&lt;String, Object&gt; の Stream
 	 * @since 4.15
 	 */
 	public Stream<Map.Entry<String, Object>> mapstream(JsonReader reader){
+		JsonValueEvent event = new JsonValueEvent();
 		Spliterator<Map.Entry<String, Object>> spliterator = new Spliterators.AbstractSpliterator<Map.Entry<String, Object>>(Long.MAX_VALUE, Spliterator.ORDERED){
 			@Override
 			public boolean tryAdvance(Consumer<? super Map.Entry<String, Object>> action){
 				try{
-					JsonToken token = reader.peek();
-					if (!reader.hasNext() && !token.equals(JsonToken.END_ARRAY) && token.equals(JsonToken.END_OBJECT) && !token.equals(JsonToken.END_DOCUMENT)) {
-						return false;
-					}
-					switch(token){
-						case BEGIN_ARRAY:
-								reader.beginArray();
-								break;
-						case END_ARRAY:
-								reader.endArray();
-								break;
-						case BEGIN_OBJECT:
-								reader.beginObject();
-								break;
-						case END_OBJECT:
-								reader.endObject();
-								break;
-						case NAME:
-								reader.nextName();
-								break;
-						case STRING:
-								action.accept(new AbstractMap.SimpleEntry<String, Object>(reader.getPath(), reader.nextString()));
-								break;
-						case NUMBER:
-								double d = Double.valueOf(reader.nextString());
-								if (d==(long)d) {
-									if (Integer.MIN_VALUE <= (long)d && (long)d <= Integer.MAX_VALUE) {
-										action.accept(new AbstractMap.SimpleEntry<String, Object>(reader.getPath(), (int)d));
-									}else {
-										action.accept(new AbstractMap.SimpleEntry<String, Object>(reader.getPath(), (long)d));
-									}
-								}else{
-									action.accept(new AbstractMap.SimpleEntry<String, Object>(reader.getPath(), d));
-								}
-								break;
-						case BOOLEAN:
-								action.accept(new AbstractMap.SimpleEntry<String, Object>(reader.getPath(), reader.nextBoolean()));
-								break;
-						case NULL:
-								action.accept(new AbstractMap.SimpleEntry<String, Object>(reader.getPath(), null));
-								break;
-						case END_DOCUMENT:
-								return false;
-					}
+					if (!event.advance(reader)) return false;
+					action.accept(event.toEntry());
 					return true;
 				}catch(Exception ex){
 					throw new RuntimeException(ex.getMessage(), ex);
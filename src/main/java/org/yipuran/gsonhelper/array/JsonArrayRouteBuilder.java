@@ -0,0 +1,86 @@
+package org.yipuran.gsonhelper.array;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+
+/**
+ * JsonArrayRouteParser生成ビルダ.
+ * <PRE>
+ * 解析対象配列の JSONキーのPATH、配列要素のクラス、配列要素の Consumer を複数登録して、
+ * １回の読込みで、それぞれの配列要素を登録した Consumer で実行する JsonArrayRouteParser を生成する。
+ * （使用例）
+ *
+ * GsonBuilder gsonbuilder = new GsonBuilder().serializeNulls()
+ * .registerTypeAdapter(LocalDateTime.class, LocalDateTimeAdapter.of("yyyy/MM/dd HH:mm:ss"));
+ *
+ * JsonArrayRouteBuilder.of(gsonbuilder)
+ * .route(Arrays.asList("export", "orders"), Order.class, o->{
+ * 	// o=orders の配列要素
+ * })
+ * .route(Arrays.asList("export", "refunds"), Refund.class, r->{
+ * 	// r=refunds の配列要素
+ * })
+ * .create()
+ * .execute(reader);
+ *
+ * JsonArrayParseBuilder#route(Consumer) で、JsonArrayParseBuilder に指定した path、クラスを最初の登録として生成することもできる。
+ * JsonArrayParser は配列要素を１つのクラス T で返す為、配列毎に別のクラスを登録する複数の配列の解析は、
+ * 型パラメータを持たない別のクラス JsonArrayRouteParser で行う。
+ * </PRE>
+ * @since 4.25
+ */
+public final class JsonArrayRouteBuilder{
+	private GsonBuilder gsonbuilder;
+	private List<ArrayTargetPath> paths = new ArrayList<>();
+	private List<Type> types = new ArrayList<>();
+	private List<Consumer<?>> consumers = new ArrayList<>();
+	private JsonArrayRouteBuilder(GsonBuilder gsonbuilder) {
+		this.gsonbuilder = gsonbuilder;
+	}
+	/**
+	 * インスタンス生成.
+	 * @param gsonbuilder 配列要素のクラス解析のGson生成する為のGsonBuilder
+	 * @return JsonArrayRouteBuilder
+	 */
+	public static JsonArrayRouteBuilder of(GsonBuilder gsonbuilder) {
+		return new JsonArrayRouteBuilder(gsonbuilder);
+	}
+	/**
+	 * 解析対象配列の登録（Type指定）.
+	 * @param pathlist 解析対象配列までの JSONキーのリスト、空のリストはルートの配列
+	 * @param type 配列要素 T クラスの java.lang.reflect.Type
+	 * @param consumer Tクラスの Consumer
+	 * @return JsonArrayRouteBuilder
+	 */
+	public <T> JsonArrayRouteBuilder route(List<String> pathlist, Type type, Consumer<T> consumer) {
+		paths.add(ArrayTargetPath.of(pathlist));
+		types.add(type);
+		consumers.add(consumer);
+		return this;
+	}
+	/**
+	 * 解析対象配列の登録（クラス指定）.
+	 * @param pathlist 解析対象配列までの JSONキーのリスト、空のリストはルートの配列
+	 * @param cls 配列要素 T クラス
+	 * @param consumer Tクラスの Consumer
+	 * @return JsonArrayRouteBuilder
+	 */
+	public <T> JsonArrayRouteBuilder route(List<String> pathlist, Class<T> cls, Consumer<T> consumer) {
+		return route(pathlist, TypeToken.get(cls).getType(), consumer);
+	}
+	/**
+	 * JsonArrayRouteParser生成
+	 * @return JsonArrayRouteParser
+	 * @throws IllegalArgumentException 登録が無い、または同じ JSONキーのPATH を登録している
+	 */
+	public JsonArrayRouteParser create() {
+		if (paths.isEmpty()) throw new IllegalArgumentException("route is required!");
+		return new JsonArrayRouteParser(gsonbuilder.create(), new ArrayTargetTree(paths)
+			, types.toArray(new Type[types.size()]), consumers.toArray(new Consumer<?>[consumers.size()]));
+	}
+}
@@ -0,0 +1,74 @@
+package org.yipuran.gsonhelper.array;
+
+import java.lang.reflect.Type;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonReader;
+
+/**
+ * 複数のJSON配列解析.
+ * <PRE>
+ * JsonArrayRouteBuilder（または JsonArrayParseBuilder#route）で登録した複数の JSON配列を１回の読込みで解析して、
+ * 配列要素を、それぞれ登録したクラスに変換して登録した Consumer で実行する。
+ * 解析対象配列までの JSONパス上に無い値は、読み飛ばす。
+ * 解析対象配列の要素の配下に、別の解析対象配列がある場合は、上位の解析対象配列の要素として実行する。
+ *
+ * 【注意】
+ * JsonReader は、Readerとして読み進められる。
+ *
+ * Consumer実行中に発生する例外、JsonIOException, JsonSyntaxException, IOException は、
+ * RuntimeException でラップされてスローされる。
+ * </PRE>
+ * @since 4.25
+ */
+public final class JsonArrayRouteParser{
+	private Gson gson;
+	private ArrayTargetTree tree;
+	private Type[] types;
+	private Consumer<?>[] consumers;
+
+	JsonArrayRouteParser(Gson gson, ArrayTargetTree tree, Type[] types, Consumer<?>[] consumers) {
+		this.gson = gson;
+		this.tree = tree;
+		this.types = types;
+		this.consumers = consumers;
+	}
+	/**
+	 * 配列解析Consumer実行.
+	 * @param reader JsonReader
+	 */
+	@SuppressWarnings("unchecked")
+	public void execute(JsonReader reader) {
+		try{
+			ArrayElementCursor cursor = new ArrayElementCursor(reader, tree);
+			while(cursor.next()){
+				int t = cursor.target();
+				((Consumer<Object>)consumers[t]).accept(gson.fromJson(reader, types[t]));
+			}
+		}catch(Exception ex){
+			throw new RuntimeException(ex.getMessage(), ex);
+		}
+	}
+	/**
+	 * ファイルの配列解析Consumer実行（メモリマップ）.
+	 * <PRE>
+	 * ファイルをメモリマップして、UTF-8 のバイト列から直接 JSON の構造を辿る。
+	 * 解析対象配列以外は文字にデコードせずに読み飛ばし、解析対象配列の範囲だけをデコードして変換する。
+	 * </PRE>
+	 * @param path UTF-8 の JSON ファイル
+	 */
+	@SuppressWarnings("unchecked")
+	public void execute(Path path) {
+		try(MappedJsonInput in = MappedJsonInput.open(path)){
+			MappedElementReader elements = new MappedElementReader(in, tree);
+			while(elements.next()){
+				int t = elements.target();
+				((Consumer<Object>)consumers[t]).accept(gson.fromJson(elements.reader(), types[t]));
+			}
+		}catch(Exception ex){
+			throw new RuntimeException(ex.getMessage(), ex);
+		}
+	}
+}
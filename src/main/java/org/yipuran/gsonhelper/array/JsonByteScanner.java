@@ -0,0 +1,305 @@
+package org.yipuran.gsonhelper.array;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.MalformedJsonException;
+
+/**
+ * メモリマップした UTF-8 バイト列の JSON 構造読込み.
+ * <PRE>
+ * MappedJsonInput のバイト列を文字にデコードせずに、JSON の構造（オブジェクト、配列、キー、値）を辿る。
+ * 文字列にデコードするのは、オブジェクトのキー（nextName）だけで、
+ * skipValue で読み飛ばす値は、'"' と '\' と括弧だけを判定してバイト単位で読み飛ばす。
+ *
+ * JsonReader と同様に、開いているオブジェクト／配列毎に次に来るべき区切り（',' ':'）を保持して検査し、
+ * 区切りが無い、または不正な場合は MalformedJsonException をスローする。
+ * ルートの値が無い、または、オブジェクト／配列を閉じる前にバイト列が終わる場合は、EOFException をスローする。
+ * ルートの値の後に空白以外がある場合は、MalformedJsonException をスローする。
+ * skipValue で読み飛ばす値の内部は、括弧の対応と文字列の終端だけを検査する。
+ * </PRE>
+ */
+final class JsonByteScanner implements JsonStructureReader{
+	private static final int EMPTY_ARRAY = 1;
+	private static final int NONEMPTY_ARRAY = 2;
+	private static final int EMPTY_OBJECT = 3;
+	private static final int DANGLING_NAME = 4;
+	private static final int NONEMPTY_OBJECT = 5;
+	private static final int EMPTY_DOCUMENT = 6;
+	private static final int NONEMPTY_DOCUMENT = 7;
+	private final MappedJsonInput in;
+	private final long limit;
+	private long pos;
+	private ByteBuffer cur;
+	private long curBase;
+	private long curEnd = -1;
+	private int[] stack = new int[32];
+	private int depth;
+	private JsonToken peeked;
+
+	/**
+	 * コンストラクタ（ファイル全体）.
+	 * @param in MappedJsonInput
+	 */
+	JsonByteScanner(MappedJsonInput in){
+		this(in, 0, in.size());
+	}
+	/**
+	 * コンストラクタ.
+	 * @param in MappedJsonInput
+	 * @param pos 読込み開始バイト位置
+	 * @param limit 読込み終了バイト位置（含まない）
+	 */
+	JsonByteScanner(MappedJsonInput in, long pos, long limit){
+		this.in = in;
+		this.pos = pos;
+		this.limit = limit;
+		if (pos==0 && limit >= 3 && at(0)==(byte)0xEF && at(1)==(byte)0xBB && at(2)==(byte)0xBF){
+			this.pos = 3;
+		}
+		push(EMPTY_DOCUMENT);
+	}
+	/**
+	 * 現在のバイト位置
+	 * <PRE>
+	 * peek() の後は、区切りを読み進めた、次の値の先頭バイト位置になる。
+	 * </PRE>
+	 * @return バイト位置
+	 */
+	long position(){
+		return pos;
+	}
+	/**
+	 * 配列の中の位置から読込みを始める.
+	 * <PRE>
+	 * 構造を辿らずに、指定位置から、配列の要素として読込む。
+	 * 指定位置は、配列要素の終わりの位置とし、続く ',' と次の要素、または配列の終わり ']' を読込む。
+	 * </PRE>
+	 * @param pos 配列要素の終了バイト位置
+	 */
+	void startInArray(long pos){
+		this.pos = pos;
+		depth = 0;
+		push(NONEMPTY_ARRAY);
+		peeked = null;
+	}
+	@Override
+	public JsonToken peek() throws IOException{
+		if (peeked != null) return peeked;
+		int scope = stack[depth-1];
+		int b;
+		switch(scope){
+			case EMPTY_ARRAY:
+				stack[depth-1] = NONEMPTY_ARRAY;
+				b = nextNonSpace();
+				if (b==']') return peeked = JsonToken.END_ARRAY;
+				break;
+			case NONEMPTY_ARRAY:
+				b = nextNonSpace();
+				if (b==']') return peeked = JsonToken.END_ARRAY;
+				if (b != ',') throw syntaxError("Unterminated array");
+				pos++;
+				b = nextNonSpace();
+				break;
+			case EMPTY_OBJECT:
+			case NONEMPTY_OBJECT:
+				stack[depth-1] = DANGLING_NAME;
+				b = nextNonSpace();
+				if (b=='}' && scope==EMPTY_OBJECT) return peeked = JsonToken.END_OBJECT;
+				if (scope==NONEMPTY_OBJECT){
+					if (b=='}') return peeked = JsonToken.END_OBJECT;
+					if (b != ',') throw syntaxError("Unterminated object");
+					pos++;
+					b = nextNonSpace();
+				}
+				if (b != '"') throw syntaxError("Expected name");
+				return peeked = JsonToken.NAME;
+			case DANGLING_NAME:
+				stack[depth-1] = NONEMPTY_OBJECT;
+				b = nextNonSpace();
+				if (b != ':') throw syntaxError("Expected ':'");
+				pos++;
+				b = nextNonSpace();
+				break;
+			case EMPTY_DOCUMENT:
+				stack[depth-1] = NONEMPTY_DOCUMENT;
+				b = nextNonSpace();
+				break;
+			default:
+				b = skipSpace();
+				if (b < 0) return peeked = JsonToken.END_DOCUMENT;
+				throw syntaxError("Expected end of document");
+		}
+		return peeked = valueToken(b);
+	}
+	@Override
+	public void beginArray() throws IOException{
+		if (peek() != JsonToken.BEGIN_ARRAY) throw syntaxError("Expected BEGIN_ARRAY but was " + peeked);
+		pos++;
+		push(EMPTY_ARRAY);
+		peeked = null;
+	}
+	@Override
+	public void endArray() throws IOException{
+		if (peek() != JsonToken.END_ARRAY) throw syntaxError("Expected END_ARRAY but was " + peeked);
+		pos++;
+		depth--;
+		peeked = null;
+	}
+	@Override
+	public void beginObject() throws IOException{
+		if (peek() != JsonToken.BEGIN_OBJECT) throw syntaxError("Expected BEGIN_OBJECT but was " + peeked);
+		pos++;
+		push(EMPTY_OBJECT);
+		peeked = null;
+	}
+	@Override
+	public void endObject() throws IOException{
+		if (peek() != JsonToken.END_OBJECT) throw syntaxError("Expected END_OBJECT but was " + peeked);
+		pos++;
+		depth--;
+		peeked = null;
+	}
+	@Override
+	public String nextName() throws IOException{
+		if (peek() != JsonToken.NAME) throw syntaxError("Expected a name but was " + peeked);
+		long start = pos;
+		pos = stringEnd(start);
+		peeked = null;
+		byte[] b = in.bytes(start + 1, pos - 1);
+		for(byte c:b){
+			if (c=='\\') return new JsonReader(new StringReader(in.decode(start, pos))).nextString();
+		}
+		return new String(b, StandardCharsets.UTF_8);
+	}
+	@Override
+	public void skipValue() throws IOException{
+		pos = valueEnd();
+		peeked = null;
+	}
+	/**
+	 * 現在の位置の値の終了バイト位置.
+	 * @return 終了バイト位置（含まない）
+	 * @throws IOException
+	 */
+	long valueEnd() throws IOException{
+		JsonToken token = peek();
+		if (token==JsonToken.NAME || token==JsonToken.END_ARRAY || token==JsonToken.END_OBJECT || token==JsonToken.END_DOCUMENT){
+			throw syntaxError("Expected a value but was " + token);
+		}
+		return valueEnd(pos);
+	}
+	/**
+	 * 現在の位置の値を、別の読込みで読んだ後、値の終了バイト位置まで進める.
+	 * @param end valueEnd() の終了バイト位置
+	 */
+	void skipTo(long end){
+		pos = end;
+		peeked = null;
+	}
+
+	private JsonToken valueToken(int b) throws IOException{
+		switch(b){
+			case '{': return JsonToken.BEGIN_OBJECT;
+			case '[': return JsonToken.BEGIN_ARRAY;
+			case '"': return JsonToken.STRING;
+			case 't': case 'f': return JsonToken.BOOLEAN;
+			case 'n': return JsonToken.NULL;
+			default:
+				if (b=='-' || b >= '0' && b <= '9') return JsonToken.NUMBER;
+				throw syntaxError("Unexpected character '" + (char)b + "'");
+		}
+	}
+	private int skipSpace(){
+		while(pos < limit){
+			byte b = at(pos);
+			if (b != ' ' && b != '\n' && b != '\r' && b != '\t') return b;
+			pos++;
+		}
+		return -1;
+	}
+	/**
+	 * 空白を読み飛ばした次のバイト、バイト列の終わりは EOFException
+	 */
+	private int nextNonSpace() throws IOException{
+		int b = skipSpace();
+		if (b < 0) throw new EOFException("End of input at byte " + pos);
+		return b;
+	}
+	private void push(int scope){
+		if (depth==stack.length) stack = Arrays.copyOf(stack, depth*2);
+		stack[depth++] = scope;
+	}
+	/**
+	 * 値の終了バイト位置（含まない）
+	 */
+	private long valueEnd(long start) throws IOException{
+		if (start >= limit) throw new EOFException("End of input at byte " + start);
+		byte b = at(start);
+		if (b=='"') return stringEnd(start);
+		if (b=='{' || b=='['){
+			byte[] open = new byte[32];
+			int nest = 0;
+			long p = start;
+			while(p < limit){
+				byte c = at(p);
+				if (c=='"'){
+					p = stringEnd(p);
+					continue;
+				}
+				if (c=='{' || c=='['){
+					if (nest==open.length) open = Arrays.copyOf(open, nest*2);
+					open[nest++] = c;
+				}else if(c=='}' || c==']'){
+					if (open[--nest] != (c=='}' ? '{' : '[')){
+						throw new MalformedJsonException("Unexpected character '" + (char)c + "' at byte " + p);
+					}
+					if (nest==0) return p + 1;
+				}
+				p++;
+			}
+			throw new EOFException("End of input at byte " + p);
+		}
+		long p = start;
+		while(p < limit){
+			byte c = at(p);
+			if (c==',' || c=='}' || c==']' || c==' ' || c=='\n' || c=='\r' || c=='\t' || c==':') break;
+			p++;
+		}
+		return p;
+	}
+	/**
+	 * 文字列の終了バイト位置（閉じる '"' の次）
+	 */
+	private long stringEnd(long start) throws IOException{
+		long p = start + 1;
+		while(p < limit){
+			byte c = at(p);
+			if (c=='\\'){
+				p += 2;
+			}else if(c=='"'){
+				return p + 1;
+			}else{
+				p++;
+			}
+		}
+		throw new EOFException("Unterminated string at byte " + start);
+	}
+	private byte at(long p){
+		if (p < curBase || p >= curEnd){
+			cur = in.chunk(p);
+			curBase = p & ~MappedJsonInput.CHUNK_MASK;
+			curEnd = curBase + cur.limit();
+		}
+		return cur.get((int)(p - curBase));
+	}
+	private MalformedJsonException syntaxError(String message){
+		return new MalformedJsonException(message + " at byte " + pos);
+	}
+}
@@ -0,0 +1,206 @@
+package org.yipuran.gsonhelper.array;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.yipuran.gsonhelper.ParallelElementPipeline;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+/**
+ * 連続した JSON の解析（NDJSON / 連結JSON）.
+ * <PRE>
+ * １行に１つの JSON を記述した NDJSON（JSON Lines）や、JSON を連結したテキストを、
+ * JSON 毎に任意 Ｔクラスに変換して Consumer または、Stream で処理する。
+ * JsonReader は lenient にして、複数の JSON を続けて読込む。
+ * JsonArrayParser と同様に、batchSize 個ずつの List での Consumer 実行、ExecutorService による変換の並列実行ができる。
+ *
+ * （使用例）
+ * GsonBuilder gsonbuilder = new GsonBuilder().serializeNulls()
+ * .registerTypeAdapter(LocalDateTime.class, LocalDateTimeAdapter.of("yyyy/MM/dd HH:mm:ss"));
+ *
+ * JsonSequenceParser.&lt;Item>of(gsonbuilder, Item.class)
+ * .execute(new JsonReader(reader), t->{
+ * 	// t=１行の JSON
+ * });
+ *
+ * 【注意】
+ * JsonReader は、Readerとして読み進められる。
+ *
+ * Consumer実行中に発生する例外、JsonIOException, JsonSyntaxException, IOException は、
+ * RuntimeException でラップされてスローされる。
+ * </PRE>
+ * @since 4.25
+ */
+public final class JsonSequenceParser<T>{
+	private Gson gson;
+	private Type type;
+
+	private JsonSequenceParser(GsonBuilder gsonbuilder, Type type) {
+		gson = gsonbuilder.create();
+		this.type = type;
+	}
+	/**
+	 * Type指定インスタンス生成.
+	 * @param gsonbuilder Tクラス解析のGson生成する為のGsonBuilder
+	 * @param type T クラスの java.lang.reflect.Type
+	 * @return JsonSequenceParser
+	 */
+	public static <T> JsonSequenceParser<T> of(GsonBuilder gsonbuilder, Type type) {
+		return new JsonSequenceParser<T>(gsonbuilder, type);
+	}
+	/**
+	 * クラス指定インスタンス生成
+	 * @param gsonbuilder Tクラス解析のGson生成する為のGsonBuilder
+	 * @param cls T クラス
+	 * @return JsonSequenceParser
+	 */
+	public static <T> JsonSequenceParser<T> of(GsonBuilder gsonbuilder, Class<T> cls) {
+		return new JsonSequenceParser<T>(gsonbuilder, TypeToken.get(cls).getType());
+	}
+	/**
+	 * 解析Consumer実行.
+	 * @param reader JsonReader
+	 * @param consumer Tクラスの Consumer
+	 */
+	public void execute(JsonReader reader, Consumer<T> consumer) {
+		reader.setLenient(true);
+		try{
+			while(hasNext(reader)){
+				consumer.accept(gson.fromJson(reader, type));
+			}
+		}catch(Exception ex){
+			throw new RuntimeException(ex.getMessage(), ex);
+		}
+	}
+	/**
+	 * Stream 取得.
+	 * @param reader JsonReader
+	 * @return ＴのStream
+	 */
+	public Stream<T> stream(JsonReader reader){
+		reader.setLenient(true);
+		Spliterator<T> spliterator = new Spliterators.AbstractSpliterator<T>(Long.MAX_VALUE, Spliterator.ORDERED){
+			@Override
+			public boolean tryAdvance(Consumer<? super T> action){
+				try{
+					if (!hasNext(reader)) return false;
+					action.accept(gson.fromJson(reader, type));
+					return true;
+				}catch(Exception ex){
+					throw new RuntimeException(ex.getMessage(), ex);
+				}
+			}
+		};
+		return StreamSupport.stream(spliterator, false);
+	}
+	/**
+	 * 解析Consumer実行（batchSize 個ずつの List で実行）.
+	 * <PRE>
+	 * JSON を batchSize 個ずつ List に格納して Consumer を実行する。最後の List は batchSize 未満の場合がある。
+	 * List は Consumer の実行毎に再利用する為、Consumer の実行後に参照する場合は、コピーすること。
+	 * </PRE>
+	 * @param reader JsonReader
+	 * @param batchSize List に格納する要素数
+	 * @param consumer Tクラス List の Consumer
+	 */
+	public void execute(JsonReader reader, int batchSize, Consumer<List<T>> consumer) {
+		if (batchSize < 1) throw new IllegalArgumentException("batchSize must be positive");
+		reader.setLenient(true);
+		List<T> batch = new ArrayList<>(batchSize);
+		try{
+			while(hasNext(reader)){
+				batch.add(gson.fromJson(reader, type));
+				if (batch.size()==batchSize){
+					consumer.accept(batch);
+					batch.clear();
+				}
+			}
+			if (!batch.isEmpty()) consumer.accept(batch);
+		}catch(Exception ex){
+			throw new RuntimeException(ex.getMessage(), ex);
+		}
+	}
+	/**
+	 * 解析Consumer実行（変換を並列実行）.
+	 * <PRE>
+	 * 呼出しスレッドで JSON を JsonElement として読込み、ExecutorService で T クラスへの変換を並列に実行する。
+	 * Consumer は呼出しスレッドで実行する。
+	 * </PRE>
+	 * @param reader JsonReader
+	 * @param executor 変換を実行する ExecutorService
+	 * @param queueSize 変換中にする JSON の数の上限
+	 * @param ordered true=JSONの記述順に Consumer 実行、false=変換が終わった順に Consumer 実行
+	 * @param consumer Tクラスの Consumer
+	 */
+	public void execute(JsonReader reader, ExecutorService executor, int queueSize, boolean ordered, Consumer<T> consumer) {
+		ParallelElementPipeline<JsonElement, T> pipeline = pipeline(reader, executor, queueSize, ordered);
+		try{
+			while(pipeline.next(consumer));
+		}catch(Exception ex){
+			throw new RuntimeException(ex.getMessage(), ex);
+		}finally{
+			pipeline.cancel();
+		}
+	}
+	/**
+	 * Stream 取得（変換を並列実行）.
+	 * <PRE>
+	 * Stream の要素を取得する時に、呼出しスレッドで JSON を JsonElement として読込み、
+	 * ExecutorService で T クラスへの変換を並列に実行する。
+	 * 途中で終了する場合は、Stream を close すると変換中の JSON を取り消す。
+	 * </PRE>
+	 * @param reader JsonReader
+	 * @param executor 変換を実行する ExecutorService
+	 * @param queueSize 変換中にする JSON の数の上限
+	 * @param ordered true=JSONの記述順、false=変換が終わった順（Stream は ORDERED の特性を持たない）
+	 * @return ＴのStream
+	 */
+	public Stream<T> stream(JsonReader reader, ExecutorService executor, int queueSize, boolean ordered){
+		ParallelElementPipeline<JsonElement, T> pipeline = pipeline(reader, executor, queueSize, ordered);
+		Spliterator<T> spliterator = new Spliterators.AbstractSpliterator<T>(Long.MAX_VALUE, ordered ? Spliterator.ORDERED : 0){
+			@Override
+			public boolean tryAdvance(Consumer<? super T> action){
+				try{
+					return pipeline.next(action);
+				}catch(Exception ex){
+					pipeline.cancel();
+					throw new RuntimeException(ex.getMessage(), ex);
+				}
+			}
+		};
+		return StreamSupport.stream(spliterator, false).onClose(pipeline::cancel);
+	}
+	private ParallelElementPipeline<JsonElement, T> pipeline(JsonReader reader, ExecutorService executor, int queueSize, boolean ordered){
+		reader.setLenient(true);
+		return new ParallelElementPipeline<JsonElement, T>(()->next(reader), je->gson.fromJson(je, type), executor, queueSize, ordered);
+	}
+	private static JsonElement next(JsonReader reader) throws IOException{
+		return hasNext(reader) ? JsonParser.parseReader(reader) : null;
+	}
+	/**
+	 * 次の JSON があるか、空白だけのテキストは JSON 無しとする
+	 */
+	private static boolean hasNext(JsonReader reader) throws IOException{
+		try{
+			return reader.peek() != JsonToken.END_DOCUMENT;
+		}catch(EOFException e){
+			return false;
+		}
+	}
+}
@@ -0,0 +1,60 @@
+package org.yipuran.gsonhelper.array;
+
+import java.io.IOException;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+/**
+ * ArrayElementCursor が JSON の構造を辿る為の読込み.
+ * <PRE>
+ * JsonReader と、メモリマップしたファイルのバイト列を直接読む JsonByteScanner を、同じ ArrayElementCursor で辿る。
+ * </PRE>
+ */
+interface JsonStructureReader{
+	JsonToken peek() throws IOException;
+	void beginArray() throws IOException;
+	void endArray() throws IOException;
+	void beginObject() throws IOException;
+	void endObject() throws IOException;
+	String nextName() throws IOException;
+	void skipValue() throws IOException;
+
+	/**
+	 * JsonReader → JsonStructureReader
+	 * @param reader JsonReader
+	 * @return JsonStructureReader
+	 */
+	static JsonStructureReader of(JsonReader reader){
+		return new JsonStructureReader(){
+			@Override
+			public JsonToken peek() throws IOException{
+				return reader.peek();
+			}
+			@Override
+			public void beginArray() throws IOException{
+				reader.beginArray();
+			}
+			@Override
+			public void endArray() throws IOException{
+				reader.endArray();
+			}
+			@Override
+			public void beginObject() throws IOException{
+				reader.beginObject();
+			}
+			@Override
+			public void endObject() throws IOException{
+				reader.endObject();
+			}
+			@Override
+			public String nextName() throws IOException{
+				return reader.nextName();
+			}
+			@Override
+			public void skipValue() throws IOException{
+				reader.skipValue();
+			}
+		};
+	}
+}
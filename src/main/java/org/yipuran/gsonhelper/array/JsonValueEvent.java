@@ -0,0 +1,248 @@
+package org.yipuran.gsonhelper.array;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.Map;
+
+import org.yipuran.gsonhelper.NumberClassifier;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+/**
+ * JSON値イベント.
+ * <PRE>
+ * JsonArrayParser#events で、JSON の値（文字列、数値、真偽値、null）毎に Consumer に渡すイベント。
+ * JSONパス（JsonReader#getPath() と同じ "$.a.b[0]" 形式）、トークンの種類、値を持つ。
+ * インスタンスは１つを再利用して値毎に内容を書き換える為、Consumer 実行後も保持する場合は、
+ * toEntry() で Map.Entry にするか、必要な値を取り出すこと。
+ * JSONパスは、JsonReader#getPath() のように値毎に生成せず、構造を辿りながら１つのバッファ上で組立てる。
+ * 数値は、数値トークンの文字列のまま保持し、取り出す時に変換する為、桁落ちしない。
+ * </PRE>
+ * @since 4.25
+ */
+public final class JsonValueEvent{
+	private final StringBuilder path = new StringBuilder(64).append('$');
+	private final CharSequence pathView = new PathView();
+	private int[] marks = new int[32];
+	private boolean[] arrays = new boolean[32];
+	private int[] counts = new int[32];
+	private int depth;
+	private String name;
+	private int valueMark = -1;
+	private JsonToken token;
+	private String text;
+	private boolean bool;
+
+	JsonValueEvent(){
+	}
+	/**
+	 * 次の値まで読み進める.
+	 * @param reader JsonReader
+	 * @return false=ドキュメントの終わり
+	 * @throws IOException
+	 */
+	boolean advance(JsonReader reader) throws IOException{
+		if (valueMark >= 0){
+			path.setLength(valueMark);
+			valueMark = -1;
+			valueDone();
+		}
+		while(true){
+			JsonToken t = reader.peek();
+			switch(t){
+				case BEGIN_ARRAY:
+					push(true);
+					reader.beginArray();
+					break;
+				case BEGIN_OBJECT:
+					push(false);
+					reader.beginObject();
+					break;
+				case END_ARRAY:
+					reader.endArray();
+					pop();
+					break;
+				case END_OBJECT:
+					reader.endObject();
+					pop();
+					break;
+				case NAME:
+					name = reader.nextName();
+					break;
+				case STRING:
+				case NUMBER:
+					value(t);
+					text = reader.nextString();
+					return true;
+				case BOOLEAN:
+					value(t);
+					bool = reader.nextBoolean();
+					text = null;
+					return true;
+				case NULL:
+					value(t);
+					reader.nextNull();
+					text = null;
+					return true;
+				case END_DOCUMENT:
+					return false;
+			}
+		}
+	}
+	private void value(JsonToken t){
+		valueMark = path.length();
+		appendKey();
+		token = t;
+	}
+	private void push(boolean array){
+		if (depth==marks.length){
+			marks = Arrays.copyOf(marks, depth*2);
+			arrays = Arrays.copyOf(arrays, depth*2);
+			counts = Arrays.copyOf(counts, depth*2);
+		}
+		marks[depth] = path.length();
+		appendKey();
+		arrays[depth] = array;
+		counts[depth] = 0;
+		depth++;
+	}
+	private void pop(){
+		depth--;
+		path.setLength(marks[depth]);
+		valueDone();
+	}
+	private void appendKey(){
+		if (depth==0) return;
+		if (arrays[depth-1]){
+			path.append('[').append(counts[depth-1]).append(']');
+		}else{
+			path.append('.').append(name);
+		}
+	}
+	private void valueDone(){
+		if (depth > 0 && arrays[depth-1]) counts[depth-1]++;
+	}
+
+	/**
+	 * JSONパス（次の値を読むまで有効）
+	 * @return JSONパス、"$.a.b[0]" 形式
+	 */
+	public CharSequence getPath(){
+		return pathView;
+	}
+	/**
+	 * JSONパスの文字列
+	 * @return JSONパス、"$.a.b[0]" 形式
+	 */
+	public String getPathString(){
+		return path.toString();
+	}
+	/**
+	 * トークンの種類
+	 * @return STRING, NUMBER, BOOLEAN, NULL のいずれか
+	 */
+	public JsonToken getToken(){
+		return token;
+	}
+	/**
+	 * 値の文字列
+	 * @return STRING は文字列、NUMBER は数値トークンの文字列、BOOLEAN は "true" または "false"、NULL は null
+	 */
+	public String getString(){
+		return token==JsonToken.BOOLEAN ? Boolean.toString(bool) : text;
+	}
+	/**
+	 * 数値の取得.
+	 * @return Integer, Long, Double, BigDecimal のいずれか（NumberClassifier#parseNarrow）
+	 * @throws IllegalStateException 数値ではない場合
+	 */
+	public Number getNumber(){
+		return NumberClassifier.parseNarrow(numberText());
+	}
+	/**
+	 * long 値の取得.
+	 * @return long
+	 * @throws IllegalStateException 数値ではない場合
+	 * @throws NumberFormatException long で表せない場合
+	 */
+	public long getLong(){
+		return Long.parseLong(numberText());
+	}
+	/**
+	 * double 値の取得.
+	 * @return double
+	 * @throws IllegalStateException 数値ではない場合
+	 */
+	public double getDouble(){
+		return Double.parseDouble(numberText());
+	}
+	/**
+	 * BigDecimal 値の取得.
+	 * @return BigDecimal
+	 * @throws IllegalStateException 数値ではない場合
+	 */
+	public BigDecimal getBigDecimal(){
+		return new BigDecimal(numberText());
+	}
+	/**
+	 * 真偽値の取得.
+	 * @return boolean
+	 * @throws IllegalStateException 真偽値ではない場合
+	 */
+	public boolean getBoolean(){
+		if (token != JsonToken.BOOLEAN) throw new IllegalStateException("Expected BOOLEAN but was " + token + " at " + path);
+		return bool;
+	}
+	/**
+	 * 値の取得.
+	 * @return String, Number（getNumber()）, Boolean, null のいずれか
+	 */
+	public Object getValue(){
+		switch(token){
+			case NUMBER:
+				return getNumber();
+			case BOOLEAN:
+				return bool;
+			default:
+				return text;
+		}
+	}
+	/**
+	 * JSONパスと値の Map.Entry を生成.
+	 * @return JSONパス文字列 → getValue() の Map.Entry
+	 */
+	public Map.Entry<String, Object> toEntry(){
+		return new AbstractMap.SimpleEntry<String, Object>(path.toString(), getValue());
+	}
+	@Override
+	public String toString(){
+		return path + "=" + getString();
+	}
+	private String numberText(){
+		if (token != JsonToken.NUMBER) throw new IllegalStateException("Expected NUMBER but was " + token + " at " + path);
+		return text;
+	}
+
+	/** JSONパスの読取り専用ビュー */
+	private final class PathView implements CharSequence{
+		@Override
+		public int length(){
+			return path.length();
+		}
+		@Override
+		public char charAt(int index){
+			return path.charAt(index);
+		}
+		@Override
+		public CharSequence subSequence(int start, int end){
+			return path.substring(start, end);
+		}
+		@Override
+		public String toString(){
+			return path.toString();
+		}
+	}
+}
@@ -0,0 +1,104 @@
+package org.yipuran.gsonhelper.array;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import com.google.gson.stream.JsonToken;
+
+/**
+ * メモリマップしたファイルの解析対象配列の要素区切り索引.
+ * <PRE>
+ * JsonByteScanner で解析対象配列を探し、配列要素の境界を構造だけの走査で求めて、
+ * 約 SEGMENT_BYTES バイト毎の要素の並び（セグメント）に区切る。
+ * セグメントは、最初の要素の開始バイト位置、最後の要素の終了バイト位置、含むオブジェクト要素の数を持ち、
+ * セグメント毎に独立して読込める。
+ * </PRE>
+ */
+final class MappedArrayIndex{
+	static final int SEGMENT_BYTES = 32 * 1024;
+	private long[] starts = new long[64];
+	private long[] ends = new long[64];
+	private long[] counts = new long[65];
+	private int size;
+
+	private MappedArrayIndex(){
+	}
+	/**
+	 * 索引の作成.
+	 * @param in MappedJsonInput
+	 * @param tree 解析対象配列の JSONパス木
+	 * @return MappedArrayIndex
+	 * @throws IOException
+	 */
+	static MappedArrayIndex build(MappedJsonInput in, ArrayTargetTree tree) throws IOException{
+		MappedArrayIndex index = new MappedArrayIndex();
+		JsonByteScanner scanner = new JsonByteScanner(in);
+		ArrayElementCursor cursor = new ArrayElementCursor(scanner, tree.root(), true);
+		while(cursor.next()){
+			scanner.beginArray();
+			long segStart = -1;
+			long segEnd = -1;
+			long objects = 0;
+			JsonToken token;
+			while((token = scanner.peek()) != JsonToken.END_ARRAY){
+				long start = scanner.position();
+				long end = scanner.valueEnd();
+				scanner.skipTo(end);
+				if (token != JsonToken.BEGIN_OBJECT) continue;
+				if (segStart < 0) segStart = start;
+				segEnd = end;
+				objects++;
+				if (segEnd - segStart >= SEGMENT_BYTES){
+					index.add(segStart, segEnd, objects);
+					segStart = -1;
+					objects = 0;
+				}
+			}
+			if (segStart >= 0) index.add(segStart, segEnd, objects);
+			scanner.endArray();
+		}
+		return index;
+	}
+	private void add(long start, long end, long objects){
+		if (size==starts.length){
+			starts = Arrays.copyOf(starts, size*2);
+			ends = Arrays.copyOf(ends, size*2);
+			counts = Arrays.copyOf(counts, size*2+1);
+		}
+		starts[size] = start;
+		ends[size] = end;
+		counts[size+1] = counts[size] + objects;
+		size++;
+	}
+	/**
+	 * セグメントの数
+	 * @return セグメントの数
+	 */
+	int size(){
+		return size;
+	}
+	/**
+	 * セグメントの最初の要素の開始バイト位置
+	 * @param segment セグメント番号
+	 * @return バイト位置
+	 */
+	long start(int segment){
+		return starts[segment];
+	}
+	/**
+	 * セグメントの最後の要素の終了バイト位置
+	 * @param segment セグメント番号
+	 * @return バイト位置（含まない）
+	 */
+	long end(int segment){
+		return ends[segment];
+	}
+	/**
+	 * 指定セグメントより前のオブジェクト要素の数
+	 * @param segment セグメント番号、size() で全体の数
+	 * @return オブジェクト要素の数
+	 */
+	long countBefore(int segment){
+		return counts[segment];
+	}
+}
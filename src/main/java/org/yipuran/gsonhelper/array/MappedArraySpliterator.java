@@ -0,0 +1,85 @@
+package org.yipuran.gsonhelper.array;
+
+import java.lang.reflect.Type;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+/**
+ * メモリマップしたファイルの解析対象配列要素の分割可能な Spliterator.
+ * <PRE>
+ * MappedArrayIndex のセグメントの範囲を持ち、trySplit でセグメントの境界で前半を分割する。
+ * セグメントは、前後に '[' ']' を付けた１つの配列として JsonReader で読み、オブジェクトの要素を T クラスに変換する。
+ * セグメント毎のオブジェクト要素の数が分かっている為、SIZED と SUBSIZED を持つ。
+ * TypeAdapter が null を返す場合があるので、NONNULL は持たない（null の要素も数に含める）。
+ * </PRE>
+ * @param <T> 配列要素
+ */
+final class MappedArraySpliterator<T> implements Spliterator<T>{
+	private final MappedJsonInput in;
+	private final MappedArrayIndex index;
+	private final Gson gson;
+	private final Type type;
+	private int lo;
+	private final int hi;
+	private JsonReader reader;
+	private long consumed;
+
+	MappedArraySpliterator(MappedJsonInput in, MappedArrayIndex index, Gson gson, Type type, int lo, int hi){
+		this.in = in;
+		this.index = index;
+		this.gson = gson;
+		this.type = type;
+		this.lo = lo;
+		this.hi = hi;
+	}
+	@Override
+	public boolean tryAdvance(Consumer<? super T> action){
+		try{
+			while(true){
+				if (reader==null){
+					if (lo >= hi) return false;
+					reader = new JsonReader(new MappedUtf8Reader(in, index.start(lo), index.end(lo), true));
+					reader.beginArray();
+				}
+				while(reader.hasNext()){
+					if (reader.peek()==JsonToken.BEGIN_OBJECT){
+						T t = gson.fromJson(reader, type);
+						consumed++;
+						action.accept(t);
+						return true;
+					}
+					reader.skipValue();
+				}
+				reader = null;
+				consumed = 0;
+				lo++;
+			}
+		}catch(Exception ex){
+			throw new RuntimeException(ex.getMessage(), ex);
+		}
+	}
+	@Override
+	public Spliterator<T> trySplit(){
+		int mid = (lo + hi) >>> 1;
+		if (mid <= lo) return null;
+		MappedArraySpliterator<T> prefix = new MappedArraySpliterator<>(in, index, gson, type, lo, mid);
+		prefix.reader = reader;
+		prefix.consumed = consumed;
+		reader = null;
+		consumed = 0;
+		lo = mid;
+		return prefix;
+	}
+	@Override
+	public long estimateSize(){
+		return index.countBefore(hi) - index.countBefore(lo) - consumed;
+	}
+	@Override
+	public int characteristics(){
+		return ORDERED | SIZED | SUBSIZED;
+	}
+}
@@ -0,0 +1,66 @@
+package org.yipuran.gsonhelper.array;
+
+import java.io.IOException;
+
+import com.google.gson.stream.JsonReader;
+
+/**
+ * メモリマップしたファイルの解析対象配列要素の読込み.
+ * <PRE>
+ * 解析対象配列までは、JsonByteScanner でバイト列のまま JSON の構造を辿り、対象配列以外の値を読み飛ばす。
+ * 対象配列の範囲だけを MappedUtf8Reader でデコードする JsonReader で読み、
+ * next() が true を返した時、reader() の JsonReader は対象配列の要素であるオブジェクトの位置にある。
+ * </PRE>
+ */
+final class MappedElementReader{
+	private final MappedJsonInput in;
+	private final JsonByteScanner scanner;
+	private final ArrayElementCursor outer;
+	private JsonReader reader;
+	private ArrayElementCursor inner;
+	private long arrayEnd;
+
+	/**
+	 * コンストラクタ.
+	 * @param in MappedJsonInput
+	 * @param tree 解析対象配列の JSONパス木
+	 */
+	MappedElementReader(MappedJsonInput in, ArrayTargetTree tree){
+		this.in = in;
+		scanner = new JsonByteScanner(in);
+		outer = new ArrayElementCursor(scanner, tree.root(), true);
+	}
+	/**
+	 * 次の対象配列要素の位置まで読み進める.
+	 * @return true=対象配列要素のオブジェクトの位置、false=ファイルの終わり
+	 * @throws IOException
+	 */
+	boolean next() throws IOException{
+		while(true){
+			if (inner != null){
+				if (inner.next()) return true;
+				inner = null;
+				scanner.skipTo(arrayEnd);
+			}
+			if (!outer.next()) return false;
+			long start = scanner.position();
+			arrayEnd = scanner.valueEnd();
+			reader = new JsonReader(new MappedUtf8Reader(in, start, arrayEnd));
+			inner = new ArrayElementCursor(JsonStructureReader.of(reader), outer.arrayNode(), false);
+		}
+	}
+	/**
+	 * 対象配列を読む JsonReader
+	 * @return JsonReader
+	 */
+	JsonReader reader(){
+		return reader;
+	}
+	/**
+	 * next() で位置した要素の対象配列の番号.
+	 * @return 登録した順の番号
+	 */
+	int target(){
+		return inner.target();
+	}
+}
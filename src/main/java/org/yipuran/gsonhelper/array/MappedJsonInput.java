@@ -0,0 +1,109 @@
+package org.yipuran.gsonhelper.array;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * メモリマップした JSON ファイル.
+ * <PRE>
+ * FileChannel#map で、ファイルを 1GB ずつの MappedByteBuffer に読取り専用でマップし、
+ * 2GB を超えるファイルも long のバイト位置で参照する。
+ * マップした MappedByteBuffer は、FileChannel を閉じた後も参照でき、複数スレッドから位置を指定して読める。
+ *
+ * close() で MappedByteBuffer の参照を解放する。マップの解除を行う公開 API が無い為、
+ * マップは解放した MappedByteBuffer が GC で回収された時に解除される。
+ * 他のスレッドが読込み中でもクラッシュしないよう、強制的なマップ解除は行わない。
+ * close() 後の読込みは IllegalStateException になる。
+ * </PRE>
+ */
+final class MappedJsonInput implements Closeable{
+	static final int CHUNK_BITS = 30;
+	static final long CHUNK_MASK = (1L << CHUNK_BITS) - 1;
+	private volatile MappedByteBuffer[] chunks;
+	private final long size;
+
+	private MappedJsonInput(MappedByteBuffer[] chunks, long size){
+		this.chunks = chunks;
+		this.size = size;
+	}
+	/**
+	 * ファイルをメモリマップする.
+	 * @param path JSON ファイル
+	 * @return MappedJsonInput
+	 * @throws IOException
+	 */
+	static MappedJsonInput open(Path path) throws IOException{
+		try(FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)){
+			long size = channel.size();
+			int count = (int)((size + CHUNK_MASK) >>> CHUNK_BITS);
+			MappedByteBuffer[] chunks = new MappedByteBuffer[count];
+			for(int i=0;i < count;i++){
+				long start = (long)i << CHUNK_BITS;
+				chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(CHUNK_MASK + 1, size - start));
+			}
+			return new MappedJsonInput(chunks, size);
+		}
+	}
+	/**
+	 * ファイルのバイト数
+	 * @return バイト数
+	 */
+	long size(){
+		return size;
+	}
+	/**
+	 * バイト位置を含む MappedByteBuffer
+	 * @param pos バイト位置
+	 * @return MappedByteBuffer、位置は (int)(pos &amp; CHUNK_MASK)
+	 */
+	ByteBuffer chunk(long pos){
+		MappedByteBuffer[] c = chunks;
+		if (c==null) throw new IllegalStateException("MappedJsonInput is closed");
+		return c[(int)(pos >>> CHUNK_BITS)];
+	}
+	/**
+	 * MappedByteBuffer の参照を解放する.
+	 */
+	@Override
+	public void close(){
+		chunks = null;
+	}
+	/**
+	 * バイト列の取得
+	 * @param start 開始バイト位置
+	 * @param end 終了バイト位置（含まない）
+	 * @return バイト列
+	 */
+	byte[] bytes(long start, long end){
+		long len = end - start;
+		if (len > Integer.MAX_VALUE - 8) throw new IllegalArgumentException("value is too large : " + len + " bytes");
+		byte[] b = new byte[(int)len];
+		int off = 0;
+		long pos = start;
+		while(pos < end){
+			ByteBuffer buf = chunk(pos).duplicate();
+			int p = (int)(pos & CHUNK_MASK);
+			int n = (int)Math.min(buf.limit() - p, end - pos);
+			buf.position(p);
+			buf.get(b, off, n);
+			off += n;
+			pos += n;
+		}
+		return b;
+	}
+	/**
+	 * UTF-8 文字列の取得
+	 * @param start 開始バイト位置
+	 * @param end 終了バイト位置（含まない）
+	 * @return 文字列
+	 */
+	String decode(long start, long end){
+		return new String(bytes(start, end), StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,107 @@
+package org.yipuran.gsonhelper.array;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.charset.MalformedInputException;
+
+/**
+ * メモリマップした UTF-8 バイト列の範囲を読む Reader.
+ * <PRE>
+ * MappedJsonInput の指定範囲のバイト列を、コピーせずに UTF-8 から char にデコードする。
+ * </PRE>
+ */
+final class MappedUtf8Reader extends Reader{
+	private final MappedJsonInput in;
+	private final long end;
+	private long pos;
+	private ByteBuffer cur;
+	private long curBase;
+	private long curEnd = -1;
+	private char pending;
+	private boolean open;
+	private boolean close;
+
+	/**
+	 * コンストラクタ.
+	 * @param in MappedJsonInput
+	 * @param start 開始バイト位置
+	 * @param end 終了バイト位置（含まない）
+	 */
+	MappedUtf8Reader(MappedJsonInput in, long start, long end){
+		this(in, start, end, false);
+	}
+	/**
+	 * コンストラクタ.
+	 * @param in MappedJsonInput
+	 * @param start 開始バイト位置
+	 * @param end 終了バイト位置（含まない）
+	 * @param array true=範囲の前後に '[' と ']' を付けて、範囲の配列要素の並びを１つの配列として読む
+	 */
+	MappedUtf8Reader(MappedJsonInput in, long start, long end, boolean array){
+		this.in = in;
+		this.pos = start;
+		this.end = end;
+		open = array;
+		close = array;
+	}
+	@Override
+	public int read(char[] cbuf, int off, int len) throws IOException{
+		if (len==0) return 0;
+		int n = 0;
+		if (open){
+			cbuf[off + n++] = '[';
+			open = false;
+		}
+		if (pending != 0 && n < len){
+			cbuf[off + n++] = pending;
+			pending = 0;
+		}
+		while(n < len && pos < end){
+			int b = at(pos);
+			if (b >= 0){
+				cbuf[off + n++] = (char)b;
+				pos++;
+			}else if((b & 0xE0)==0xC0){
+				cbuf[off + n++] = (char)((b & 0x1F) << 6 | cont(pos+1));
+				pos += 2;
+			}else if((b & 0xF0)==0xE0){
+				cbuf[off + n++] = (char)((b & 0x0F) << 12 | cont(pos+1) << 6 | cont(pos+2));
+				pos += 3;
+			}else if((b & 0xF8)==0xF0){
+				int cp = (b & 0x07) << 18 | cont(pos+1) << 12 | cont(pos+2) << 6 | cont(pos+3);
+				pos += 4;
+				cbuf[off + n++] = Character.highSurrogate(cp);
+				if (n < len){
+					cbuf[off + n++] = Character.lowSurrogate(cp);
+				}else{
+					pending = Character.lowSurrogate(cp);
+				}
+			}else{
+				throw new MalformedInputException(1);
+			}
+		}
+		if (close && pos >= end && pending==0 && n < len){
+			cbuf[off + n++] = ']';
+			close = false;
+		}
+		return n==0 ? -1 : n;
+	}
+	@Override
+	public void close(){
+	}
+	private int cont(long p) throws IOException{
+		if (p >= end) throw new MalformedInputException(1);
+		int b = at(p);
+		if ((b & 0xC0) != 0x80) throw new MalformedInputException(1);
+		return b & 0x3F;
+	}
+	private byte at(long p){
+		if (p < curBase || p >= curEnd){
+			cur = in.chunk(p);
+			curBase = p & ~MappedJsonInput.CHUNK_MASK;
+			curEnd = curBase + cur.limit();
+		}
+		return cur.get((int)(p - curBase));
+	}
+}
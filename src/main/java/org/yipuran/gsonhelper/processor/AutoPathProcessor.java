@@ -0,0 +1,448 @@
+package org.yipuran.gsonhelper.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.WildcardType;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic.Kind;
+
+import org.yipuran.gsonhelper.Exclude;
+import org.yipuran.gsonhelper.JsonPath;
+import org.yipuran.gsonhelper.serialize.JsonPathSplitter;
+
+import com.google.gson.annotations.SerializedName;
+
+/**
+ * @JsonPath, @Exclude 付きクラスの TypeAdapter 生成 注釈プロセッサ.
+ * <PRE>
+ * コンパイル時に、＠JsonPath または ＠Exclude 付きのフィールドを宣言しているクラス毎に、
+ * リフレクションを使わない TypeAdapter（クラス名_JsonAdapter）を同じパッケージに生成する。
+ * パッケージ毎に、生成した TypeAdapter を返す TypeAdapterFactory（GeneratedJsonAdapterFactory）を生成する。
+ * 後のラウンドで生成されたクラスも含めるため、TypeAdapterFactory は全てのラウンドの終了時に生成する。
+ * （最後のラウンドで生成したソースとして javac が警告を出すが、TypeAdapterFactory に注釈処理の対象は無い）
+ * ＠JsonPath の値に空のキー（"$..aaa" など）がある場合は、フィールドにエラーを出力する。
+ *
+ * ＠JsonPath 付きのフィールドがあるクラスは、AutoPathSerializer と同じ JSON を出力する。
+ * ＠Exclude 付きのフィールドだけのクラスは、ExcludeWithAnotateStrategy を指定した Gson と同じく、
+ * static, transient, ＠Exclude のフィールドを除いて、スーパークラスのフィールドも出力する。
+ * JSONキーは ＠SerializedName または、フィールド名で、FieldNamingPolicy、＠Expose、＠Since は適用しない。
+ * フィールドの値は、宣言した型の TypeAdapter で出力する。ただし、Gson のリフレクションと同じく、
+ * final でない総称型でないクラスの型のフィールドは、値の実行時の型が異なる場合、実行時の型の TypeAdapter で出力する。
+ *
+ * private のフィールドは、getXxx() / isXxx() のメソッドで値を取得する。
+ * 値を取得できないフィールド、総称型のクラス、private や内部クラス（static でない）のクラスは、
+ * 警告を出して TypeAdapter を生成しない。
+ * デシリアライズは、Gson の次の TypeAdapter に委譲する。AutoPathTypeAdapterFactory を後に登録すると、
+ * ＠JsonPath の階層構造の JSON を読込める。
+ *
+ * 生成するソースは、文字コードに依存しないよう ASCII 文字だけで記述する（JSONキーはエスケープする）。
+ * META-INF/services には登録していないので、使用する場合は javac の -processor で指定する。
+ *     javac -processor org.yipuran.gsonhelper.processor.AutoPathProcessor ...
+ *
+ * Gson gson = new GsonBuilder().serializeNulls()
+ * 				.registerTypeAdapterFactory(new GeneratedJsonAdapterFactory())
+ * 				.registerTypeAdapterFactory(new AutoPathTypeAdapterFactory())
+ * 				.create();
+ * </PRE>
+ * @since 4.25
+ */
+@SupportedAnnotationTypes({"org.yipuran.gsonhelper.JsonPath", "org.yipuran.gsonhelper.Exclude"})
+public class AutoPathProcessor extends AbstractProcessor{
+	private static final String ADAPTER_SUFFIX = "_JsonAdapter";
+	private static final String FACTORY_NAME = "GeneratedJsonAdapterFactory";
+	/** パッケージ → 生成した TypeAdapter の対象クラス名 → TypeAdapter のクラス名、全ラウンドで蓄積する */
+	private final Map<String, Map<String, String>> generated = new LinkedHashMap<>();
+
+	/** 出力するフィールド */
+	private static final class Prop{
+		String name;
+		String access;
+		TypeMirror type;
+		/** 値の実行時の型の TypeAdapter で出力するか */
+		boolean runtime;
+		List<String> segments;
+	}
+	/** ＠JsonPath の階層 */
+	private static final class Node{
+		final String name;
+		final List<Object> entries = new ArrayList<>();
+		Node(String name){
+			this.name = name;
+		}
+		Node child(String key){
+			for(Object e:entries){
+				if (e instanceof Node && ((Node)e).name.equals(key)) return (Node)e;
+			}
+			Node n = new Node(key);
+			entries.add(n);
+			return n;
+		}
+	}
+
+	@Override
+	public SourceVersion getSupportedSourceVersion(){
+		return SourceVersion.latestSupported();
+	}
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv){
+		if (roundEnv.processingOver()){
+			for(Entry<String, Map<String, String>> e:generated.entrySet()){
+				try{
+					writeFactory(e.getKey(), e.getValue());
+				}catch(IOException ex){
+					processingEnv.getMessager().printMessage(Kind.ERROR, ex.getMessage());
+				}
+			}
+			return false;
+		}
+		Map<TypeElement, Boolean> targets = new LinkedHashMap<>();
+		for(Element e:roundEnv.getElementsAnnotatedWith(JsonPath.class)){
+			if (e.getKind()==ElementKind.FIELD) targets.put((TypeElement)e.getEnclosingElement(), true);
+		}
+		for(Element e:roundEnv.getElementsAnnotatedWith(Exclude.class)){
+			if (e.getKind()==ElementKind.FIELD) targets.putIfAbsent((TypeElement)e.getEnclosingElement(), false);
+		}
+		for(Entry<TypeElement, Boolean> e:targets.entrySet()){
+			TypeElement type = e.getKey();
+			if (!generatable(type)) continue;
+			List<Prop> props = e.getValue() ? pathProps(type) : excludeProps(type);
+			if (props==null) continue;
+			String pkg = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+			try{
+				writeAdapter(pkg, type, props);
+			}catch(IOException ex){
+				processingEnv.getMessager().printMessage(Kind.ERROR, ex.getMessage(), type);
+				continue;
+			}
+			generated.computeIfAbsent(pkg, k->new LinkedHashMap<>()).put(type.getQualifiedName().toString(), adapterName(type));
+		}
+		return false;
+	}
+
+	/**
+	 * 生成した TypeAdapter から参照できる、総称型でないクラスか.
+	 */
+	private boolean generatable(TypeElement type){
+		if (type.getKind() != ElementKind.CLASS){
+			return false;
+		}
+		if (!type.getTypeParameters().isEmpty()){
+			warn("generic class is not supported", type);
+			return false;
+		}
+		for(Element e=type;e instanceof TypeElement;e=e.getEnclosingElement()){
+			TypeElement t = (TypeElement)e;
+			if (t.getModifiers().contains(Modifier.PRIVATE)
+			|| t.getNestingKind()==NestingKind.LOCAL || t.getNestingKind()==NestingKind.ANONYMOUS
+			|| t.getNestingKind()==NestingKind.MEMBER && !t.getModifiers().contains(Modifier.STATIC)){
+				warn("class is not accessible from generated adapter", type);
+				return false;
+			}
+		}
+		return true;
+	}
+	/**
+	 * ＠JsonPath のクラス、AutoPathSerializer と同じく、宣言した全てのフィールド（＠Exclude を除く）
+	 */
+	private List<Prop> pathProps(TypeElement type){
+		List<Prop> list = new ArrayList<>();
+		for(VariableElement f:ElementFilter.fieldsIn(type.getEnclosedElements())){
+			if (f.getAnnotation(Exclude.class) != null) continue;
+			Prop p = prop(type, f, f.getModifiers().contains(Modifier.STATIC));
+			if (p==null) return null;
+			JsonPath jpath = f.getAnnotation(JsonPath.class);
+			if (jpath != null){
+				try{
+					p.segments = JsonPathSplitter.split(jpath.value());
+				}catch(IllegalArgumentException ex){
+					processingEnv.getMessager().printMessage(Kind.ERROR, ex.getMessage(), f);
+					return null;
+				}
+				p.segments.remove(0);
+			}
+			list.add(p);
+		}
+		return list;
+	}
+	/**
+	 * ＠Exclude だけのクラス、Gson と同じく、static, transient を除いたスーパークラスを含むフィールド
+	 */
+	private List<Prop> excludeProps(TypeElement type){
+		List<Prop> list = new ArrayList<>();
+		for(TypeElement t=type;t != null && !t.getQualifiedName().contentEquals("java.lang.Object");t=superclass(t)){
+			for(VariableElement f:ElementFilter.fieldsIn(t.getEnclosedElements())){
+				Set<Modifier> mod = f.getModifiers();
+				if (mod.contains(Modifier.STATIC) || mod.contains(Modifier.TRANSIENT) || f.getAnnotation(Exclude.class) != null) continue;
+				Prop p = prop(type, f, false);
+				if (p==null) return null;
+				list.add(p);
+			}
+		}
+		return list;
+	}
+	private TypeElement superclass(TypeElement t){
+		TypeMirror s = t.getSuperclass();
+		return s.getKind()==TypeKind.DECLARED ? (TypeElement)((DeclaredType)s).asElement() : null;
+	}
+	private Prop prop(TypeElement type, VariableElement f, boolean isStatic){
+		Prop p = new Prop();
+		SerializedName sn = f.getAnnotation(SerializedName.class);
+		p.name = sn==null ? f.getSimpleName().toString() : sn.value();
+		p.type = f.asType();
+		p.runtime = runtimeType(p.type);
+		String owner = isStatic ? ((TypeElement)f.getEnclosingElement()).getQualifiedName().toString() : "value";
+		if (accessible(type, f)){
+			p.access = owner + "." + f.getSimpleName();
+			return p;
+		}
+		if (isStatic && f.getConstantValue() != null){
+			p.access = processingEnv.getElementUtils().getConstantExpression(f.getConstantValue());
+			return p;
+		}
+		ExecutableElement getter = getter(type, f, isStatic);
+		if (getter==null){
+			warn("field " + f.getSimpleName() + " has no accessible getter", type);
+			return null;
+		}
+		p.access = owner + "." + getter.getSimpleName() + "()";
+		return p;
+	}
+	private ExecutableElement getter(TypeElement type, VariableElement f, boolean isStatic){
+		String name = f.getSimpleName().toString();
+		String cap = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+		boolean bool = f.asType().getKind()==TypeKind.BOOLEAN;
+		for(ExecutableElement m:ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(type))){
+			String mname = m.getSimpleName().toString();
+			if ((mname.equals("get" + cap) || bool && mname.equals("is" + cap))
+			&& m.getParameters().isEmpty()
+			&& m.getModifiers().contains(Modifier.STATIC)==isStatic
+			&& accessible(type, m)
+			&& processingEnv.getTypeUtils().isSameType(m.getReturnType(), f.asType())){
+				return m;
+			}
+		}
+		return null;
+	}
+	/**
+	 * 対象クラスと同じパッケージに生成する TypeAdapter から参照できるか
+	 */
+	private boolean accessible(TypeElement type, Element member){
+		Set<Modifier> mod = member.getModifiers();
+		if (mod.contains(Modifier.PRIVATE)) return false;
+		if (mod.contains(Modifier.PUBLIC)) return true;
+		return processingEnv.getElementUtils().getPackageOf(member).equals(processingEnv.getElementUtils().getPackageOf(type));
+	}
+
+	private void writeAdapter(String pkg, TypeElement type, List<Prop> props) throws IOException{
+		String cname = type.getQualifiedName().toString();
+		String aname = adapterName(type);
+		Node root = new Node(null);
+		for(Prop p:props){
+			Node node = root;
+			if (p.segments != null){
+				for(String seg:p.segments){
+					node = node.child(seg);
+				}
+			}
+			node.entries.add(p);
+		}
+		boolean erase = props.stream().anyMatch(p->p.segments != null);
+		StringBuilder sb = new StringBuilder();
+		if (!pkg.isEmpty()) sb.append("package ").append(pkg).append(";\n\n");
+		sb.append("import java.io.IOException;\n\n")
+		.append("import com.google.gson.Gson;\n")
+		.append("import com.google.gson.TypeAdapter;\n")
+		.append("import com.google.gson.TypeAdapterFactory;\n")
+		.append("import com.google.gson.reflect.TypeToken;\n")
+		.append("import com.google.gson.stream.JsonReader;\n")
+		.append("import com.google.gson.stream.JsonWriter;\n\n")
+		.append("/**\n * TypeAdapter of ").append(cname).append(", generated by ").append(getClass().getName()).append(".\n */\n")
+		.append("@SuppressWarnings({\"rawtypes\", \"unchecked\"})\n")
+		.append("final class ").append(aname).append(" extends TypeAdapter<").append(cname).append(">{\n")
+		.append("\tprivate final TypeAdapter<").append(cname).append("> delegate;\n");
+		boolean runtime = props.stream().anyMatch(p->p.runtime);
+		if (runtime) sb.append("\tprivate final Gson gson;\n");
+		for(int i=0;i < props.size();i++){
+			Prop p = props.get(i);
+			if (isString(p.type)) continue;
+			sb.append("\tprivate final TypeAdapter<").append(adapterType(p.type, erase)).append("> a").append(i).append(";\n");
+		}
+		sb.append("\n\t").append(aname).append("(Gson gson, TypeAdapterFactory skipPast){\n")
+		.append("\t\tdelegate = gson.getDelegateAdapter(skipPast, TypeToken.get(").append(cname).append(".class));\n");
+		if (runtime) sb.append("\t\tthis.gson = gson;\n");
+		for(int i=0;i < props.size();i++){
+			Prop p = props.get(i);
+			if (isString(p.type)) continue;
+			sb.append("\t\ta").append(i).append(" = gson.getAdapter(").append(typeToken(p.type, erase)).append(");\n");
+		}
+		sb.append("\t}\n")
+		.append("\t@Override\n")
+		.append("\tpublic void write(JsonWriter out, ").append(cname).append(" value) throws IOException{\n")
+		.append("\t\tif (value==null){\n\t\t\tout.nullValue();\n\t\t\treturn;\n\t\t}\n");
+		writeNode(sb, root, props, erase, "\t\t");
+		sb.append("\t}\n")
+		.append("\t@Override\n")
+		.append("\tpublic ").append(cname).append(" read(JsonReader in) throws IOException{\n")
+		.append("\t\treturn delegate.read(in);\n")
+		.append("\t}\n")
+		.append("}\n");
+		write(pkg.isEmpty() ? aname : pkg + "." + aname, sb, type);
+	}
+	private void writeNode(StringBuilder sb, Node node, List<Prop> props, boolean erase, String indent){
+		sb.append(indent).append("out.beginObject();\n");
+		for(Object e:node.entries){
+			if (e instanceof Node){
+				sb.append(indent).append("out.name(").append(literal(((Node)e).name)).append(");\n");
+				writeNode(sb, (Node)e, props, erase, indent);
+				continue;
+			}
+			Prop p = (Prop)e;
+			int i = props.indexOf(p);
+			sb.append(indent).append("out.name(").append(literal(p.name)).append(");\n");
+			if (isString(p.type)){
+				sb.append(indent).append("out.value(").append(p.access).append(");\n");
+			}else if(p.type.getKind().isPrimitive()){
+				sb.append(indent).append("a").append(i).append(".write(out, ").append(p.access).append(");\n");
+			}else if(p.runtime){
+				String type = adapterType(p.type, erase);
+				sb.append(indent).append(type).append(" v").append(i).append(" = ").append(p.access).append(";\n")
+				.append(indent).append("if (v").append(i).append("==null) out.nullValue();\n")
+				.append(indent).append("else if (v").append(i).append(".getClass()==").append(type).append(".class) a").append(i).append(".write(out, v").append(i).append(");\n")
+				.append(indent).append("else ((TypeAdapter)gson.getAdapter(v").append(i).append(".getClass())).write(out, v").append(i).append(");\n");
+			}else{
+				sb.append(indent).append(adapterType(p.type, erase)).append(" v").append(i).append(" = ").append(p.access).append(";\n")
+				.append(indent).append("if (v").append(i).append("==null) out.nullValue(); else a").append(i).append(".write(out, v").append(i).append(");\n");
+			}
+		}
+		sb.append(indent).append("out.endObject();\n");
+	}
+	private void writeFactory(String pkg, Map<String, String> types) throws IOException{
+		StringBuilder sb = new StringBuilder();
+		if (!pkg.isEmpty()) sb.append("package ").append(pkg).append(";\n\n");
+		sb.append("import com.google.gson.Gson;\n")
+		.append("import com.google.gson.TypeAdapter;\n")
+		.append("import com.google.gson.TypeAdapterFactory;\n")
+		.append("import com.google.gson.reflect.TypeToken;\n\n")
+		.append("/**\n * TypeAdapterFactory of generated TypeAdapters, generated by ").append(getClass().getName()).append(".\n */\n")
+		.append("public final class ").append(FACTORY_NAME).append(" implements TypeAdapterFactory{\n")
+		.append("\t@SuppressWarnings(\"unchecked\")\n")
+		.append("\t@Override\n")
+		.append("\tpublic <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type){\n")
+		.append("\t\tClass<? super T> rawType = type.getRawType();\n");
+		List<Element> originating = new ArrayList<>();
+		for(Entry<String, String> e:types.entrySet()){
+			sb.append("\t\tif (rawType==").append(e.getKey()).append(".class) return (TypeAdapter<T>)new ")
+			.append(e.getValue()).append("(gson, this);\n");
+			TypeElement t = processingEnv.getElementUtils().getTypeElement(e.getKey());
+			if (t != null) originating.add(t);
+		}
+		sb.append("\t\treturn null;\n")
+		.append("\t}\n")
+		.append("}\n");
+		write(pkg.isEmpty() ? FACTORY_NAME : pkg + "." + FACTORY_NAME, sb, originating.toArray(new Element[originating.size()]));
+	}
+	private void write(String name, StringBuilder sb, Element...originating) throws IOException{
+		try(Writer w = processingEnv.getFiler().createSourceFile(name, originating).openWriter()){
+			w.write(sb.toString());
+		}
+	}
+
+	private static String adapterName(TypeElement type){
+		StringBuilder sb = new StringBuilder(type.getSimpleName());
+		for(Element e=type.getEnclosingElement();e instanceof TypeElement;e=e.getEnclosingElement()){
+			sb.insert(0, '_').insert(0, e.getSimpleName());
+		}
+		return sb.append(ADAPTER_SUFFIX).toString();
+	}
+	/**
+	 * Gson の TypeAdapterRuntimeTypeWrapper と同じく、値の実行時の型で出力する、final でない総称型でないクラスか
+	 */
+	private static boolean runtimeType(TypeMirror t){
+		if (t.getKind() != TypeKind.DECLARED) return false;
+		DeclaredType d = (DeclaredType)t;
+		Element e = d.asElement();
+		return (e.getKind()==ElementKind.CLASS || e.getKind()==ElementKind.INTERFACE)
+			&& !e.getModifiers().contains(Modifier.FINAL) && d.getTypeArguments().isEmpty();
+	}
+	private static boolean isString(TypeMirror t){
+		return t.getKind()==TypeKind.DECLARED
+			&& ((TypeElement)((DeclaredType)t).asElement()).getQualifiedName().contentEquals("java.lang.String");
+	}
+	/**
+	 * TypeAdapter の型引数、プリミティブはラッパークラス
+	 */
+	private String adapterType(TypeMirror t, boolean erase){
+		if (t.getKind().isPrimitive()){
+			return processingEnv.getTypeUtils().boxedClass((PrimitiveType)t).getQualifiedName().toString();
+		}
+		return typeName(erase ? processingEnv.getTypeUtils().erasure(t) : t);
+	}
+	/**
+	 * gson.getAdapter の引数、総称型は TypeToken の匿名クラス
+	 */
+	private String typeToken(TypeMirror t, boolean erase){
+		if (t.getKind().isPrimitive()){
+			return t.getKind().name().toLowerCase() + ".class";
+		}
+		TypeMirror e = processingEnv.getTypeUtils().erasure(t);
+		if (erase || processingEnv.getTypeUtils().isSameType(e, t)){
+			return typeName(e) + ".class";
+		}
+		return "new TypeToken<" + typeName(t) + ">(){}";
+	}
+	private static String typeName(TypeMirror t){
+		switch(t.getKind()){
+		case ARRAY:
+			return typeName(((ArrayType)t).getComponentType()) + "[]";
+		case DECLARED:
+			DeclaredType d = (DeclaredType)t;
+			StringBuilder sb = new StringBuilder(((TypeElement)d.asElement()).getQualifiedName());
+			if (!d.getTypeArguments().isEmpty()){
+				sb.append('<');
+				for(int i=0;i < d.getTypeArguments().size();i++){
+					if (i > 0) sb.append(", ");
+					sb.append(typeName(d.getTypeArguments().get(i)));
+				}
+				sb.append('>');
+			}
+			return sb.toString();
+		case WILDCARD:
+			WildcardType w = (WildcardType)t;
+			if (w.getExtendsBound() != null) return "? extends " + typeName(w.getExtendsBound());
+			if (w.getSuperBound() != null) return "? super " + typeName(w.getSuperBound());
+			return "?";
+		default:
+			return t.getKind().isPrimitive() ? t.getKind().name().toLowerCase() : "java.lang.Object";
+		}
+	}
+	private String literal(String s){
+		return processingEnv.getElementUtils().getConstantExpression(s);
+	}
+	private void warn(String message, Element e){
+		processingEnv.getMessager().printMessage(Kind.WARNING, message, e);
+	}
+
+}
@@ -0,0 +1,4 @@
+/**
+ * 注釈プロセッサ
+ */
+package org.yipuran.gsonhelper.processor;
\ No newline at end of file
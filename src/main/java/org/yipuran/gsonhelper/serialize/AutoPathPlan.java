@@ -0,0 +1,216 @@
+package org.yipuran.gsonhelper.serialize;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.yipuran.gsonhelper.Exclude;
+import org.yipuran.gsonhelper.JsonPath;
+
+import com.google.gson.annotations.SerializedName;
+
+/**
+ * @JsonPath 付きクラスのフィールド処理計画.
+ * <PRE>
+ * クラス毎に１回だけ、getDeclaredFields() の宣言順で、＠Exclude を除いたフィールドの
+ * JSONキー（＠SerializedName または、フィールド名）、＠JsonPath を分解した階層、値を取得、設定する MethodHandle を求めて、
+ * ClassValue にキャッシュする。
+ * フィールドは ＠JsonPath の階層毎に Node にまとめ、AutoPathSerializer と同じ JSONキーの出現順で並べる。
+ * 読込み用に、Node 毎に JSONキーから配下の Node、FieldPlan を引く Map を持つ。
+ * </PRE>
+ */
+final class AutoPathPlan{
+	private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+	private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+	private static final ClassValue<AutoPathPlan> PLANS = new ClassValue<AutoPathPlan>(){
+		@Override
+		protected AutoPathPlan computeValue(Class<?> type){
+			return new AutoPathPlan(type);
+		}
+	};
+	private static final ClassValue<Boolean> HAS_PATH = new ClassValue<Boolean>(){
+		@Override
+		protected Boolean computeValue(Class<?> type){
+			for(Field f:type.getDeclaredFields()){
+				if (f.getAnnotation(JsonPath.class) != null) return true;
+			}
+			return false;
+		}
+	};
+	final FieldPlan[] fields;
+	/** ＠JsonPath のルート "$" の Node */
+	final Node root;
+
+	/** ＠JsonPath の階層 */
+	static final class Node{
+		/** JSONキー、ルートは null */
+		final String name;
+		/** 配下の FieldPlan または Node、JSONキーの出現順 */
+		final List<Object> entries = new ArrayList<>();
+		/** 読込み用、JSONキー → 配下の Node */
+		final Map<String, Node> children = new HashMap<>();
+		/** 読込み用、JSONキー → 値を設定できる FieldPlan */
+		final Map<String, FieldPlan> settables = new HashMap<>();
+		Node(String name){
+			this.name = name;
+		}
+		Node child(String key){
+			Node n = children.get(key);
+			if (n==null){
+				n = new Node(key);
+				children.put(key, n);
+				entries.add(n);
+			}
+			return n;
+		}
+		void add(FieldPlan f){
+			entries.add(f);
+			if (f.settable()) settables.put(f.name, f);
+		}
+	}
+
+	/** フィールドの処理計画 */
+	static final class FieldPlan{
+		/** JSONキー */
+		final String name;
+		/** フィールドの型 */
+		final Class<?> type;
+		/** フィールドの総称型 */
+		final Type genericType;
+		/** fields の中の位置 */
+		final int index;
+		/** 値の実行時の型で出力するか、Gson と同じく final でないクラス、型変数の型のフィールド */
+		final boolean runtimeType;
+		/** ＠JsonPath の階層のキー、＠JsonPath が無い場合は null */
+		final String[] segments;
+		/** ＠JsonPath の階層毎の、先頭からの JSONパス（segments の１つ前までの階層は parents） */
+		final String[] paths;
+		/** ＠JsonPath の階層毎の、親の JSONパス */
+		final String[] parents;
+		/** 値を格納する JSONパス、＠JsonPath が無い場合は null */
+		final String path;
+		private final MethodHandle getter;
+		private final MethodHandle setter;
+
+		FieldPlan(Field f, int index){
+			this.index = index;
+			SerializedName sn = f.getAnnotation(SerializedName.class);
+			name = sn==null ? f.getName() : sn.value();
+			type = f.getType();
+			genericType = f.getGenericType();
+			runtimeType = !Modifier.isFinal(type.getModifiers())
+					&& (genericType instanceof Class || genericType instanceof TypeVariable);
+			JsonPath jpath = f.getAnnotation(JsonPath.class);
+			if (jpath==null){
+				segments = null;
+				paths = null;
+				parents = null;
+				path = null;
+			}else{
+				List<String> plist = JsonPathSplitter.split(jpath.value());
+				String p = plist.remove(0);
+				segments = plist.toArray(new String[plist.size()]);
+				paths = new String[segments.length];
+				parents = new String[segments.length];
+				for(int i=0;i < segments.length;i++){
+					parents[i] = p;
+					p = p + "." + segments[i];
+					paths[i] = p;
+				}
+				path = p;
+			}
+			f.setAccessible(true);
+			try{
+				MethodHandle mh = MethodHandles.lookup().unreflectGetter(f);
+				if (Modifier.isStatic(f.getModifiers())){
+					mh = MethodHandles.dropArguments(mh, 0, Object.class);
+				}
+				getter = mh.asType(GETTER_TYPE);
+				int mod = f.getModifiers();
+				setter = Modifier.isStatic(mod) || Modifier.isFinal(mod) || f.isSynthetic()
+						? null : MethodHandles.lookup().unreflectSetter(f).asType(SETTER_TYPE);
+			}catch(IllegalAccessException e){
+				throw new RuntimeException(e);
+			}
+		}
+		/**
+		 * フィールドの値を取得
+		 * @param src 対象インスタンス
+		 * @return フィールドの値
+		 */
+		Object get(Object src){
+			try{
+				return (Object)getter.invokeExact(src);
+			}catch(RuntimeException | Error e){
+				throw e;
+			}catch(Throwable e){
+				throw new RuntimeException(e);
+			}
+		}
+		/**
+		 * フィールドに値を設定できるか、static, final, synthetic のフィールドは設定しない.
+		 * @return true=設定できる
+		 */
+		boolean settable(){
+			return setter != null;
+		}
+		/**
+		 * フィールドに値を設定
+		 * @param target 対象インスタンス
+		 * @param value 値
+		 */
+		void set(Object target, Object value){
+			try{
+				setter.invokeExact(target, value);
+			}catch(RuntimeException | Error e){
+				throw e;
+			}catch(Throwable e){
+				throw new RuntimeException(e);
+			}
+		}
+	}
+
+	private AutoPathPlan(Class<?> cls){
+		List<FieldPlan> list = new ArrayList<>();
+		root = new Node(null);
+		for(Field f:cls.getDeclaredFields()){
+			if (f.getAnnotation(Exclude.class) != null) continue;
+			FieldPlan fp = new FieldPlan(f, list.size());
+			list.add(fp);
+			Node node = root;
+			if (fp.segments != null){
+				for(String seg:fp.segments){
+					node = node.child(seg);
+				}
+			}
+			node.add(fp);
+		}
+		fields = list.toArray(new FieldPlan[list.size()]);
+	}
+	/**
+	 * クラスの処理計画を取得
+	 * @param cls クラス
+	 * @return AutoPathPlan
+	 */
+	static AutoPathPlan of(Class<?> cls){
+		return PLANS.get(cls);
+	}
+
+	/**
+	 * ＠JsonPath 付きのフィールドを宣言しているクラスか.
+	 * フィールドのアクセス権は変更しないので、任意のクラスで判定できる。
+	 * @param cls クラス
+	 * @return true=＠JsonPath 付きのフィールドがある
+	 */
+	static boolean hasPath(Class<?> cls){
+		return HAS_PATH.get(cls);
+	}
+}
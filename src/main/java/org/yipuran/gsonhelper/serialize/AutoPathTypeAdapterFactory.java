@@ -0,0 +1,131 @@
+package org.yipuran.gsonhelper.serialize;
+
+import java.io.IOException;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * @JsonPath による TypeAdapterFactory.
+ * <PRE>
+ * フィールドに付与した@JsonPath により、階層化してシリアライズする。出力する JSON は AutoPathSerializer と同じである。
+ * AutoPathSerializer と異なり、JsonObject を生成せず JsonWriter に直接書込む。
+ * フィールドは、クラス毎に１回だけ @JsonPath の階層毎にまとめて、階層毎に１回だけ beginObject / endObject する。
+ * フィールドの値は、Gson のリフレクションと同じく、final でないクラスの型のフィールドは、値の実行時の型の TypeAdapter で書込む。
+ *
+ * 同じ階層構造の JSON を読込んで、@JsonPath のフィールドに値を設定するデシリアライズもできる。
+ * JSON はツリーにせず JsonReader で１回だけ読み進め、クラス毎の @JsonPath の階層から、
+ * 対象のフィールドが無いキーの値は skipValue() で読み飛ばし、フィールドの値はフィールドの型の TypeAdapter で直接読込む。
+ * インスタンスは、この TypeAdapterFactory の次の TypeAdapter（通常は、Gson のリフレクションによる TypeAdapter）で
+ * 空の JSON {} から生成して、JSON に存在するキーのフィールドだけを設定する。
+ * static, final のフィールドには設定しない。
+ *
+ * @JsonPath 付きのフィールドを宣言しているクラスだけを対象にする。
+ * （使い方）
+ * Gson gson = new GsonBuilder().serializeNulls()
+ * 				.registerTypeAdapterFactory(new AutoPathTypeAdapterFactory())
+ * 				.setPrettyPrinting()
+ * 				.create();
+ * String json = gson.toJson(data);
+ * Data data2 = gson.fromJson(json, Data.class);
+ * </PRE>
+ * @since 4.25
+ */
+public class AutoPathTypeAdapterFactory implements TypeAdapterFactory{
+
+	@Override
+	public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type){
+		Class<?> rawType = type.getRawType();
+		if (rawType.isPrimitive() || rawType.isArray() || rawType.isInterface() || rawType.isEnum()) return null;
+		if (!AutoPathPlan.hasPath(rawType)) return null;
+		return new Adapter<T>(gson, AutoPathPlan.of(rawType), gson.getDelegateAdapter(this, type));
+	}
+
+	private static final class Adapter<T> extends TypeAdapter<T>{
+		private final Gson gson;
+		private final AutoPathPlan plan;
+		private final TypeAdapter<T> delegate;
+		private final TypeAdapter<?>[] writeAdapters;
+		private final TypeAdapter<?>[] readAdapters;
+
+		Adapter(Gson gson, AutoPathPlan plan, TypeAdapter<T> delegate){
+			this.gson = gson;
+			this.plan = plan;
+			this.delegate = delegate;
+			writeAdapters = new TypeAdapter<?>[plan.fields.length];
+			readAdapters = new TypeAdapter<?>[plan.fields.length];
+			for(AutoPathPlan.FieldPlan f:plan.fields){
+				writeAdapters[f.index] = gson.getAdapter(f.type);
+				if (f.settable()) readAdapters[f.index] = gson.getAdapter(TypeToken.get(f.genericType));
+			}
+		}
+		@Override
+		public void write(JsonWriter out, T value) throws IOException{
+			if (value==null){
+				out.nullValue();
+				return;
+			}
+			write(out, plan.root, value);
+		}
+		@SuppressWarnings("unchecked")
+		private void write(JsonWriter out, AutoPathPlan.Node node, T value) throws IOException{
+			out.beginObject();
+			for(Object e:node.entries){
+				if (e instanceof AutoPathPlan.Node){
+					AutoPathPlan.Node child = (AutoPathPlan.Node)e;
+					out.name(child.name);
+					write(out, child, value);
+				}else{
+					AutoPathPlan.FieldPlan f = (AutoPathPlan.FieldPlan)e;
+					Object obj = f.get(value);
+					out.name(f.name);
+					if (obj==null){
+						out.nullValue();
+					}else if(f.runtimeType && obj.getClass() != f.type){
+						((TypeAdapter<Object>)gson.getAdapter(obj.getClass())).write(out, obj);
+					}else{
+						((TypeAdapter<Object>)writeAdapters[f.index]).write(out, obj);
+					}
+				}
+			}
+			out.endObject();
+		}
+		@Override
+		public T read(JsonReader in) throws IOException{
+			JsonToken token = in.peek();
+			if (token==JsonToken.NULL){
+				in.nextNull();
+				return null;
+			}
+			if (token != JsonToken.BEGIN_OBJECT) return delegate.read(in);
+			T obj = delegate.fromJsonTree(new JsonObject());
+			read(in, plan.root, obj);
+			return obj;
+		}
+		private void read(JsonReader in, AutoPathPlan.Node node, T obj) throws IOException{
+			in.beginObject();
+			while(in.hasNext()){
+				String key = in.nextName();
+				JsonToken token = in.peek();
+				AutoPathPlan.Node child = node.children.get(key);
+				if (child != null && token==JsonToken.BEGIN_OBJECT){
+					read(in, child, obj);
+					continue;
+				}
+				AutoPathPlan.FieldPlan f = node.settables.get(key);
+				if (f==null || token==JsonToken.NULL && f.type.isPrimitive()){
+					in.skipValue();
+					continue;
+				}
+				f.set(obj, readAdapters[f.index].read(in));
+			}
+			in.endObject();
+		}
+	}
+}
@@ -0,0 +1,49 @@
+package org.yipuran.gsonhelper.serialize;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ＠JsonPath の値の分解.
+ * <PRE>
+ * ＠JsonPath("$.aaa.bbb") の値を、セパレータ文字 "." で階層毎のキーに分解する。
+ * "\" の直後の "." は区切らずキーの文字とし、分解したキーから "\" は取り除く。
+ * 空のキー（"$..aaa"、"$.aaa." など）は、IllegalArgumentException をスローする。
+ *
+ * AutoPathSerializer、AutoPathTypeAdapterFactory と、注釈プロセッサ AutoPathProcessor が
+ * 同じ規則で分解するために使用する。
+ * </PRE>
+ * @since 4.25
+ */
+public final class JsonPathSplitter{
+	private static final char SEPARATOR = '.';
+	private static final char ESCAPE = '\\';
+
+	private JsonPathSplitter(){}
+
+	/**
+	 * ＠JsonPath の値 → 階層毎のキーのリスト.
+	 * @param path ＠JsonPath の値
+	 * @return 先頭（"$"）を含む、階層毎のキーのリスト
+	 * @throws IllegalArgumentException 空のキーがある場合
+	 */
+	public static List<String> split(String path){
+		List<String> list = new ArrayList<>();
+		StringBuilder sb = new StringBuilder();
+		for(int i=0;i < path.length();i++){
+			char c = path.charAt(i);
+			if (c==SEPARATOR && (sb.length()==0 || sb.charAt(sb.length()-1) != ESCAPE)){
+				list.add(segment(path, sb));
+				sb.setLength(0);
+			}else{
+				sb.append(c);
+			}
+		}
+		list.add(segment(path, sb));
+		return list;
+	}
+	private static String segment(String path, StringBuilder sb){
+		if (sb.length()==0) throw new IllegalArgumentException("empty key in JsonPath : " + path);
+		return sb.toString().replace(String.valueOf(ESCAPE), "");
+	}
+}
@@ -0,0 +1,353 @@
+package org.yipuran.gsonhelper.util;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.AbstractMap.SimpleEntry;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map.Entry;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.yipuran.gsonhelper.NumberClassifier;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.MalformedJsonException;
+
+/**
+ * JsonReader → JSONキー＆値 逐次読込み.
+ * <PRE>
+ * JsonReader のトークンを順に読み、JSONツリーを生成せずに末端の値毎に JSONキーと値を取得する。
+ * JSONキーは、"."区切り、配列は添え字 [n] で表現する。空の配列は、空の ArrayList を値とする。
+ * 数値は、NumberClassifier で Long, Double, BigDecimal にする。
+ * next() の呼出し毎に次の値まで読み進める為、読込みは呼出し側が必要とする分だけ行われる。
+ * JSONキーは PathBuffer １つで組立て、path() で必要とされた時だけ String を生成する。
+ * </PRE>
+ */
+final class JsonFlatReader{
+	private JsonReader reader;
+	private BiFunction<JsonFlatReader, String, Object> stringConverter;
+	private Predicate<String> predicate;
+	private JsonPathFilter pathfilter;
+	private Function<PathBuffer, Function<JsonElement, Object>> deserializers;
+	private boolean[] arrays = new boolean[32];
+	private int[] indexes = new int[32];
+	private int depth;
+	private PathBuffer buffer = new PathBuffer();
+	private boolean leafPushed;
+	private String name;
+	private boolean started;
+	private String path;
+	private Object value;
+
+	/**
+	 * コンストラクタ.
+	 * @param reader JsonReader
+	 * @param stringConverter 文字列値の変換、読込み中の JsonFlatReader と文字列値 → 値
+	 */
+	JsonFlatReader(JsonReader reader, BiFunction<JsonFlatReader, String, Object> stringConverter){
+		this.reader = reader;
+		this.stringConverter = stringConverter;
+		reader.setLenient(true);
+	}
+	/**
+	 * JsonElement を辿るコンストラクタ.
+	 * <PRE>
+	 * JsonReader を使わずに、walk(JsonElement, BiConsumer) で JsonElement の末端の値を辿る場合に使用する。
+	 * </PRE>
+	 * @param stringConverter 文字列値の変換、読込み中の JsonFlatReader と文字列値 → 値
+	 */
+	JsonFlatReader(BiFunction<JsonFlatReader, String, Object> stringConverter){
+		this.stringConverter = stringConverter;
+	}
+	/**
+	 * JSONキー Predicate 指定コンストラクタ.
+	 * <PRE>
+	 * Predicate が true になる JSONキーの値だけを読込み、他の値は読み飛ばす。
+	 * Predicate が JsonPathFilter であれば、mayMatchUnder が false のオブジェクト、配列は丸ごと読み飛ばす。
+	 * </PRE>
+	 * @param reader JsonReader
+	 * @param stringConverter 文字列値の変換、読込み中の JsonFlatReader と文字列値 → 値
+	 * @param predicate JSONキー Predicate
+	 */
+	JsonFlatReader(JsonReader reader, BiFunction<JsonFlatReader, String, Object> stringConverter, Predicate<String> predicate){
+		this(reader, stringConverter);
+		this.predicate = predicate;
+		if (predicate instanceof JsonPathFilter){
+			pathfilter = (JsonPathFilter)predicate;
+		}
+	}
+	/**
+	 * デシリアライザ指定コンストラクタ.
+	 * <PRE>
+	 * オブジェクト、配列を含む全ての値の位置で、JSONキーに対するデシリアライザを求め、
+	 * デシリアライザがあれば、その位置の値だけを JsonElement にしてデシリアライザの結果を値とする。
+	 * それ以外の値は、JsonElement を生成せずにトークンから読込む。
+	 * </PRE>
+	 * @param reader JsonReader
+	 * @param deserializers JSONキー → デシリアライザ、デシリアライザが無ければ null を返す Function
+	 */
+	JsonFlatReader(JsonReader reader, Function<PathBuffer, Function<JsonElement, Object>> deserializers){
+		this(reader, (f, s)->s);
+		this.deserializers = deserializers;
+	}
+	/**
+	 * JSONキーの先頭に配列の添え字を付ける.
+	 * <PRE>
+	 * 配列要素の JsonElement を単独で読む場合に、要素の位置 [n] を JSONキーの先頭にする。
+	 * 読込み開始前に実行すること。
+	 * </PRE>
+	 * @param index 添え字
+	 * @return JsonFlatReader
+	 */
+	JsonFlatReader prefixIndex(int index){
+		buffer.pushIndex(index);
+		return this;
+	}
+	/**
+	 * 次の値まで読み進める.
+	 * @return true=値を読込んだ、false=JSONの終わり
+	 * @throws JsonIOException 読込みエラー
+	 * @throws JsonSyntaxException JSON書式エラー
+	 */
+	boolean next(){
+		if (leafPushed){
+			leafPushed = false;
+			buffer.pop();
+		}
+		path = null;
+		value = null;
+		try{
+			if (!started){
+				started = true;
+				try{
+					reader.peek();
+				}catch(EOFException e){
+					return false;
+				}
+			}
+			for(;;){
+				JsonToken token = reader.peek();
+				switch(token){
+					case END_OBJECT:
+						reader.endObject();
+						pop();
+						continue;
+					case END_ARRAY:
+						reader.endArray();
+						pop();
+						continue;
+					case NAME:
+						name = reader.nextName();
+						continue;
+					case END_DOCUMENT:
+						return false;
+					default:
+						break;
+				}
+				pushValue();
+				if (deserializers != null){
+					Function<JsonElement, Object> deserializer = deserializers.apply(buffer);
+					if (deserializer != null){
+						return leaf(deserializer.apply(JsonParser.parseReader(reader)));
+					}
+				}
+				if (token==JsonToken.BEGIN_OBJECT || token==JsonToken.BEGIN_ARRAY){
+					if (pathfilter != null && !pathfilter.mayMatchUnder(buffer)){
+						skip();
+						continue;
+					}
+					if (token==JsonToken.BEGIN_OBJECT){
+						reader.beginObject();
+						push(false);
+						continue;
+					}
+					reader.beginArray();
+					if (reader.peek() != JsonToken.END_ARRAY){
+						push(true);
+						continue;
+					}
+					reader.endArray();
+					if (predicate != null && !predicate.test(path())){
+						popValue();
+						afterValue();
+						continue;
+					}
+					return leaf(new ArrayList<Object>());
+				}
+				if (predicate != null && !predicate.test(path())){
+					skip();
+					continue;
+				}
+				switch(token){
+					case STRING:
+						return leaf(stringConverter.apply(this, reader.nextString()));
+					case NUMBER:
+						return leaf(NumberClassifier.parse(reader.nextString()));
+					case BOOLEAN:
+						return leaf(reader.nextBoolean());
+					default:
+						reader.nextNull();
+						return leaf(null);
+				}
+			}
+		}catch(MalformedJsonException | EOFException | NumberFormatException e){
+			throw new JsonSyntaxException(e);
+		}catch(IOException e){
+			throw new JsonIOException(e);
+		}
+	}
+	/**
+	 * JsonElement の末端の値毎に JSONキーと値を渡す.
+	 * <PRE>
+	 * next() と同じ JSONキー、値で、JsonElement のツリーを辿る。prefixIndex の添え字は JSONキーの先頭になる。
+	 * </PRE>
+	 * @param je JsonElement
+	 * @param biconsumer JSONキーと値の BiConsumer
+	 * @throws JsonSyntaxException 数値が不正な場合
+	 */
+	void walk(JsonElement je, BiConsumer<String, Object> biconsumer){
+		if (je.isJsonObject()){
+			for(Entry<String, JsonElement> e:je.getAsJsonObject().entrySet()){
+				buffer.pushName(e.getKey());
+				walk(e.getValue(), biconsumer);
+				buffer.pop();
+			}
+			return;
+		}
+		if (je.isJsonArray()){
+			JsonArray array = je.getAsJsonArray();
+			if (array.size()==0){
+				biconsumer.accept(buffer.toString(), new ArrayList<Object>());
+				return;
+			}
+			for(int i=0;i < array.size();i++){
+				buffer.pushIndex(i);
+				walk(array.get(i), biconsumer);
+				buffer.pop();
+			}
+			return;
+		}
+		Object v = null;
+		if (je.isJsonPrimitive()){
+			JsonPrimitive p = je.getAsJsonPrimitive();
+			try{
+				v = p.isString() ? stringConverter.apply(this, p.getAsString())
+					: p.isNumber() ? NumberClassifier.parse(p.getAsString()) : (Object)p.getAsBoolean();
+			}catch(NumberFormatException e){
+				throw new JsonSyntaxException(e);
+			}
+		}
+		biconsumer.accept(buffer.toString(), v);
+	}
+	/**
+	 * 読込み中の JSONキー組立てバッファ
+	 * @return PathBuffer
+	 */
+	PathBuffer pathBuffer(){
+		return buffer;
+	}
+	/**
+	 * 読込んだ値の JSONキー（CharSequence 参照）.
+	 * <PRE>
+	 * String を生成せずに JSONキーを参照する。次の next() までの間だけ有効。
+	 * </PRE>
+	 * @return JSONキー
+	 */
+	CharSequence pathView(){
+		return buffer;
+	}
+	/**
+	 * 読込んだ値の JSONキー
+	 * @return JSONキー
+	 */
+	String path(){
+		if (path==null) path = buffer.toString();
+		return path;
+	}
+	/**
+	 * 読込んだ値
+	 * @return 値
+	 */
+	Object value(){
+		return value;
+	}
+	/**
+	 * JSONキー＆値 Entry の遅延 Stream 生成.
+	 * <PRE>
+	 * Stream の要素を取得する毎に JsonReader を読み進める。
+	 * </PRE>
+	 * @return JSONキー＆値 EntryのStream
+	 */
+	Stream<Entry<String, Object>> stream(){
+		Spliterator<Entry<String, Object>> spliterator = new Spliterators.AbstractSpliterator<Entry<String, Object>>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL){
+			@Override
+			public boolean tryAdvance(Consumer<? super Entry<String, Object>> action){
+				if (!next()) return false;
+				action.accept(new SimpleEntry<String, Object>(path(), value));
+				return true;
+			}
+		};
+		return StreamSupport.stream(spliterator, false);
+	}
+
+	private boolean leaf(Object v) throws IOException{
+		value = v;
+		leafPushed = depth > 0;
+		afterValue();
+		return true;
+	}
+	private void skip() throws IOException{
+		reader.skipValue();
+		popValue();
+		afterValue();
+	}
+	/** 値の位置のキーまたは添え字を追加、ルートの値は追加しない */
+	private void pushValue(){
+		path = null;
+		if (depth==0) return;
+		if (arrays[depth-1]){
+			buffer.pushIndex(indexes[depth-1]);
+		}else{
+			buffer.pushName(name);
+		}
+	}
+	private void popValue(){
+		if (depth > 0) buffer.pop();
+	}
+	private void push(boolean array){
+		if (depth==arrays.length){
+			arrays = Arrays.copyOf(arrays, depth*2);
+			indexes = Arrays.copyOf(indexes, depth*2);
+		}
+		arrays[depth] = array;
+		indexes[depth] = 0;
+		depth++;
+	}
+	private void pop() throws IOException{
+		depth--;
+		popValue();
+		afterValue();
+	}
+	private void afterValue() throws IOException{
+		if (depth > 0){
+			if (arrays[depth-1]) indexes[depth-1]++;
+		}else if(reader.peek() != JsonToken.END_DOCUMENT){
+			throw new JsonSyntaxException("Did not consume the entire document.");
+		}
+	}
+}
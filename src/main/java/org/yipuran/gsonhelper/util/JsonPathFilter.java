@@ -0,0 +1,51 @@
+package org.yipuran.gsonhelper.util;
+
+import java.util.function.Predicate;
+
+/**
+ * JSONキー Predicate（配下の読み飛ばし判定付き）.
+ * <PRE>
+ * JsonView の Predicate 指定の read で、Predicate に本インタフェースを指定すると、
+ * mayMatchUnder で false を返す JSONキー配下のオブジェクト、配列は、値を解析せずに読み飛ばす。
+ * 選択したJSONキーの値だけを読む処理は、JSON全体ではなく選択したデータ量に比例した処理量になる。
+ *
+ * JSONキーは、JsonView と同じ "."区切り、配列は添え字 [n] で表現し、of, under で指定する JSONキーには、
+ * 任意の添え字として [*] を指定できる。
+ *
+ *    // order.customer 配下と、items の各要素の price だけを読む
+ *    new JsonView().read(reader, JsonPathFilter.under("order.customer", "items[*].price"), (k, v)->{
+ *    });
+ * </PRE>
+ * @since 4.25
+ */
+@FunctionalInterface
+public interface JsonPathFilter extends Predicate<String>{
+	/**
+	 * JSONキー配下に、test で true になる JSONキーが存在し得るか.
+	 * <PRE>
+	 * false を返すと、そのJSONキーのオブジェクト、配列は読み飛ばされる。
+	 * 判定できない場合は、true を返す。
+	 * </PRE>
+	 * @param prefix オブジェクト、配列の JSONキー、ルートは空文字
+	 * @return true=配下を読む、false=読み飛ばす
+	 */
+	default boolean mayMatchUnder(CharSequence prefix){
+		return true;
+	}
+	/**
+	 * 指定JSONキーに一致する値のみを対象にする JsonPathFilter.
+	 * @param paths JSONキー、添え字 [*] は任意の添え字
+	 * @return JsonPathFilter
+	 */
+	static JsonPathFilter of(String...paths){
+		return new PathListFilter(paths, false);
+	}
+	/**
+	 * 指定JSONキーと、その配下の値を対象にする JsonPathFilter.
+	 * @param paths JSONキー、添え字 [*] は任意の添え字
+	 * @return JsonPathFilter
+	 */
+	static JsonPathFilter under(String...paths){
+		return new PathListFilter(paths, true);
+	}
+}
@@ -1,5 +1,6 @@
 package org.yipuran.gsonhelper.util;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
@@ -12,35 +13,46 @@ import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.AbstractMap.SimpleEntry;
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.ExecutorService;
 import java.util.function.BiConsumer;
 import java.util.function.Predicate;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
-import com.google.gson.JsonArray;
+import org.yipuran.gsonhelper.ParallelElementPipeline;
+
 import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
+import com.google.gson.JsonIOException;
 import com.google.gson.JsonParser;
-import com.google.gson.JsonPrimitive;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.MalformedJsonException;
 
 /**
  * JSON読込み key-value 抽出(日付時刻デシリアライズオプション).
  * <PRE>
  * JSONキーは、"."区切り、配列は添え字 [n] で表現、BiConsumer 実行または Streamを生成する
+ * BiConsumer 実行、Stream生成は、JSONツリーを生成せずに JsonReader で読みながら実行する。
+ * Stream は遅延評価で、findFirst, limit, anyMatch 等で終了すれば、それ以降のJSONは読込まない。
+ * JSONキーPredicate 指定の read で JsonPathFilter を指定すると、対象外のオブジェクト、配列は読み飛ばす。
+ * ルートが大きな配列の場合は、readParallel で配列要素を ExecutorService で並列に解析できる。
  * </PRE>
  * @since 4.23
  */
 public class JsonView{
 	private Map<String, DateHandle> dpMap;
+	private PathRuleIndex<DateHandle> dateIndex;
 	/**
 	 * コンストラクタ.
 	 */
 	public JsonView(){
-		dpMap = new HashMap<>();
+		dpMap = new LinkedHashMap<>();
 	}
 	enum DateType{ DATE, DATETIME, TIME }
 	class DateHandle{
@@ -61,6 +73,7 @@ public class JsonView{
 	 */
 	public JsonView addDateDeserilaize(Pattern ptn, DateTimeFormatter formatter) {
 		dpMap.put(ptn.pattern(), new DateHandle(DateType.DATE, ptn, formatter));
+		dateIndex = null;
 		return this;
 	}
 	/**
@@ -71,6 +84,7 @@ public class JsonView{
 	 */
 	public JsonView addDatetimeDeserilaize(Pattern ptn, DateTimeFormatter formatter) {
 		dpMap.put(ptn.pattern(), new DateHandle(DateType.DATETIME, ptn, formatter));
+		dateIndex = null;
 		return this;
 	}
 	/**
@@ -81,6 +95,7 @@ public class JsonView{
 	 */
 	public JsonView addTimeDeserilaize(Pattern ptn, DateTimeFormatter formatter) {
 		dpMap.put(ptn.pattern(), new DateHandle(DateType.TIME, ptn, formatter));
+		dateIndex = null;
 		return this;
 	}
 
@@ -90,7 +105,7 @@ public class JsonView{
 	 * @param biconsumer JSONキーとJSONキーに位置する値の BiConsumer
 	 */
 	public void read(String jsontxt, BiConsumer<String, Object> biconsumer){
-		parseElement(JsonParser.parseReader(new StringReader(jsontxt)), "", biconsumer);
+		read(new JsonReader(new StringReader(jsontxt)), biconsumer);
 	}
 	/**
 	 * JSON テキストを読込める java.io.Reader → BiConsumer 実行
@@ -98,7 +113,7 @@ public class JsonView{
 	 * @param biconsumer  JSONキーとJSONキーに位置する値の BiConsumer
 	 */
 	public void read(Reader reader, BiConsumer<String, Object> biconsumer){
-		parseElement(JsonParser.parseReader(reader), "", biconsumer);
+		read(new JsonReader(reader), biconsumer);
 	}
 	/**
 	 * JSON テキストを読込 InputStream → BiConsumer 実行
@@ -106,63 +121,58 @@ public class JsonView{
 	 * @param biconsumer  JSONキーとJSONキーに位置する値の BiConsumer
 	 */
 	public void read(InputStream in, BiConsumer<String, Object> biconsumer){
-		parseElement(JsonParser.parseReader(new InputStreamReader(in, StandardCharsets.UTF_8)), "", biconsumer);
+		read(new JsonReader(new InputStreamReader(in, StandardCharsets.UTF_8)), biconsumer);
 	}
-	private void parseElement(JsonElement je, String parent, BiConsumer<String, Object> biconsumer){
-		if (je.isJsonObject()) {
-			JsonObject jo = (JsonObject)je;
-			for(Entry<String, JsonElement> e:jo.entrySet()){
-				parseElement(e.getValue(), parent + "." + e.getKey(), biconsumer);
-			}
-		}else if(je.isJsonArray()){
-			JsonArray ary = je.getAsJsonArray();
-			if (ary.size() > 0) {
-				int i = 0;
-				for(Iterator<JsonElement> it=ary.iterator();it.hasNext();i++){
-					parseElement(it.next(), parent + "[" + i + "]", biconsumer);
-				}
-			}else{
-				biconsumer.accept(parent.substring(1), new ArrayList<Object>());
-			}
-		}else if(je.isJsonNull()){
-			biconsumer.accept(parent.substring(1), null);
-		}else if(je.isJsonPrimitive()){
-			String path = parent.substring(1);
-			JsonPrimitive p = je.getAsJsonPrimitive();
-			if (p.isNumber()){
-				if (je.toString().indexOf(".") > 0) {
-					biconsumer.accept(path, p.getAsDouble());
-				}else{
-					if (p.getAsLong() <= Integer.MAX_VALUE) {
-						biconsumer.accept(path, p.getAsLong());
-					}else{
-						biconsumer.accept(path, p.getAsInt());
-					}
-				}
-			}else if(p.isBoolean()){
-				biconsumer.accept(path, p.getAsBoolean());
-			}else if(p.isString()){
-				dpMap.values().stream().filter(e->e.ptn.matcher(path).find()).findFirst()
-				.<Runnable>map(e->()->{
-					try{
-						switch(e.type){
-							case DATE:
-								biconsumer.accept(path, LocalDate.parse(p.getAsString(), e.formatter));
-								break;
-							case DATETIME:
-								biconsumer.accept(path, LocalDateTime.parse(p.getAsString(), e.formatter));
-								break;
-							case TIME:
-								biconsumer.accept(path, LocalTime.parse(p.getAsString(), e.formatter));
-								break;
-						}
-					}catch(DateTimeParseException x){
-						biconsumer.accept(path, p.getAsString());
-					}
-				}).orElse(()->{
-					biconsumer.accept(path, p.getAsString());
-				}).run();
-			}
+	private void read(JsonReader reader, BiConsumer<String, Object> biconsumer){
+		JsonFlatReader flat = new JsonFlatReader(reader, this::stringValue);
+		while(flat.next()){
+			biconsumer.accept(flat.path(), flat.value());
+		}
+	}
+
+	/**
+	 * JSON テキスト→ JSONキーを CharSequence で参照する BiConsumer 実行.
+	 * <PRE>
+	 * 値毎に JSONキーの String を生成しない。BiConsumer に渡す CharSequence は、
+	 * BiConsumer の実行中だけ有効で、保持する場合は toString() で String にすること。
+	 * </PRE>
+	 * @param jsontxt
+	 * @param biconsumer JSONキーとJSONキーに位置する値の BiConsumer
+	 * @since 4.25
+	 */
+	public void readView(String jsontxt, BiConsumer<CharSequence, Object> biconsumer){
+		readView(new JsonReader(new StringReader(jsontxt)), biconsumer);
+	}
+	/**
+	 * JSON テキストを読込める java.io.Reader → JSONキーを CharSequence で参照する BiConsumer 実行.
+	 * <PRE>
+	 * 値毎に JSONキーの String を生成しない。BiConsumer に渡す CharSequence は、
+	 * BiConsumer の実行中だけ有効で、保持する場合は toString() で String にすること。
+	 * </PRE>
+	 * @param reader java.io.Reader
+	 * @param biconsumer JSONキーとJSONキーに位置する値の BiConsumer
+	 * @since 4.25
+	 */
+	public void readView(Reader reader, BiConsumer<CharSequence, Object> biconsumer){
+		readView(new JsonReader(reader), biconsumer);
+	}
+	/**
+	 * JSON テキストを読込 InputStream → JSONキーを CharSequence で参照する BiConsumer 実行.
+	 * <PRE>
+	 * 値毎に JSONキーの String を生成しない。BiConsumer に渡す CharSequence は、
+	 * BiConsumer の実行中だけ有効で、保持する場合は toString() で String にすること。
+	 * </PRE>
+	 * @param in
+	 * @param biconsumer JSONキーとJSONキーに位置する値の BiConsumer
+	 * @since 4.25
+	 */
+	public void readView(InputStream in, BiConsumer<CharSequence, Object> biconsumer){
+		readView(new JsonReader(new InputStreamReader(in, StandardCharsets.UTF_8)), biconsumer);
+	}
+	private void readView(JsonReader reader, BiConsumer<CharSequence, Object> biconsumer){
+		JsonFlatReader flat = new JsonFlatReader(reader, this::stringValue);
+		while(flat.next()){
+			biconsumer.accept(flat.pathView(), flat.value());
 		}
 	}
 
@@ -173,7 +183,7 @@ public class JsonView{
 	 * @param biconsumer JSONキーとJSONキーに位置する値の BiConsumer
 	 */
 	public void read(String jsontxt, Predicate<String> predicate, BiConsumer<String, Object> biconsumer){
-		parseElement(JsonParser.parseReader(new StringReader(jsontxt)), "", predicate, biconsumer);
+		read(new JsonReader(new StringReader(jsontxt)), predicate, biconsumer);
 	}
 	/**
 	 * JSONキーPredicate検証→JSON テキストを読込める java.io.Reader → BiConsumer 実行
@@ -182,7 +192,7 @@ public class JsonView{
 	 * @param biconsumer  JSONキーとJSONキーに位置する値の BiConsumer
 	 */
 	public void read(Reader reader, Predicate<String> predicate, BiConsumer<String, Object> biconsumer){
-		parseElement(JsonParser.parseReader(reader), "", predicate, biconsumer);
+		read(new JsonReader(reader), predicate, biconsumer);
 	}
 	/**
 	 * JSONキーPredicate検証→JSON テキストを読込 InputStream → BiConsumer 実行
@@ -191,73 +201,115 @@ public class JsonView{
 	 * @param biconsumer  JSONキーとJSONキーに位置する値の BiConsumer
 	 */
 	public void read(InputStream in, Predicate<String> predicate, BiConsumer<String, Object> biconsumer){
-		parseElement(JsonParser.parseReader(new InputStreamReader(in, StandardCharsets.UTF_8)), "", predicate, biconsumer);
+		read(new JsonReader(new InputStreamReader(in, StandardCharsets.UTF_8)), predicate, biconsumer);
 	}
-	private void parseElement(JsonElement je, String parent, Predicate<String> predicate, BiConsumer<String, Object> biconsumer){
-		if (je.isJsonObject()) {
-			JsonObject jo = (JsonObject)je;
-			for(Entry<String, JsonElement> e:jo.entrySet()){
-				parseElement(e.getValue(), parent + "." + e.getKey(), biconsumer);
-			}
-		}else if(je.isJsonArray()){
-			JsonArray ary = je.getAsJsonArray();
-			if (ary.size() > 0) {
-				int i = 0;
-				for(Iterator<JsonElement> it=ary.iterator();it.hasNext();i++){
-					parseElement(it.next(), parent + "[" + i + "]", biconsumer);
-				}
-			}else{
-				String path = parent.substring(1);
-				if (predicate.test(path)){
-					biconsumer.accept(path, new ArrayList<Object>());
-				}
+	private void read(JsonReader reader, Predicate<String> predicate, BiConsumer<String, Object> biconsumer){
+		JsonFlatReader flat = new JsonFlatReader(reader, this::stringValue, predicate);
+		while(flat.next()){
+			biconsumer.accept(flat.path(), flat.value());
+		}
+	}
+
+	/**
+	 * ルートが配列の JSON テキストを読込める java.io.Reader → 配列要素を並列に解析して BiConsumer 実行.
+	 * <PRE>
+	 * ルートの配列要素を batchSize 個ずつに分けて、ExecutorService で JSONキー＆値への展開、日付時刻変換を実行する。
+	 * BiConsumer は、呼出しスレッドで実行される為、スレッドセーフである必要はない。
+	 *   ordered = true  : JSONの記述順に BiConsumer 実行
+	 *   ordered = false : 解析が終わった batch の順に BiConsumer 実行（batch 内は記述順）
+	 * 解析中の batch 数は queueSize までに制限され、BiConsumer の処理が遅い場合は読込みを待つ。
+	 * 配列要素は JsonElement にして、公開 API の JsonElement を辿って JSONキー＆値に展開する。
+	 * 読込み、並列実行、受け渡しは、JsonArrayParser の並列変換と同じ ParallelElementPipeline で行う。
+	 * ルートが配列でない場合は、read(Reader, BiConsumer) と同じ逐次処理になる。
+	 * ExecutorService は、終了（shutdown）しない。
+	 * </PRE>
+	 * @param reader java.io.Reader
+	 * @param executor 解析を実行する ExecutorService
+	 * @param batchSize 一度に解析を依頼する配列要素数
+	 * @param queueSize 解析中にする batch 数の上限
+	 * @param ordered true=JSONの記述順に実行
+	 * @param biconsumer JSONキーとJSONキーに位置する値の BiConsumer
+	 * @since 4.25
+	 */
+	public void readParallel(Reader reader, ExecutorService executor, int batchSize, int queueSize, boolean ordered, BiConsumer<String, Object> biconsumer){
+		readParallel(new JsonReader(reader), executor, batchSize, queueSize, ordered, biconsumer);
+	}
+	/**
+	 * ルートが配列の JSON テキストを読込 InputStream → 配列要素を並列に解析して BiConsumer 実行.
+	 * <PRE>
+	 * readParallel(Reader, ExecutorService, int, int, boolean, BiConsumer) を UTF-8 で読込む。
+	 * </PRE>
+	 * @param in
+	 * @param executor 解析を実行する ExecutorService
+	 * @param batchSize 一度に解析を依頼する配列要素数
+	 * @param queueSize 解析中にする batch 数の上限
+	 * @param ordered true=JSONの記述順に実行
+	 * @param biconsumer JSONキーとJSONキーに位置する値の BiConsumer
+	 * @since 4.25
+	 */
+	public void readParallel(InputStream in, ExecutorService executor, int batchSize, int queueSize, boolean ordered, BiConsumer<String, Object> biconsumer){
+		readParallel(new JsonReader(new InputStreamReader(in, StandardCharsets.UTF_8)), executor, batchSize, queueSize, ordered, biconsumer);
+	}
+	private void readParallel(JsonReader reader, ExecutorService executor, int batchSize, int queueSize, boolean ordered, BiConsumer<String, Object> biconsumer){
+		if (batchSize < 1) throw new IllegalArgumentException("batchSize must be positive");
+		if (queueSize < 1) throw new IllegalArgumentException("queueSize must be positive");
+		reader.setLenient(true);
+		dateIndex();
+		try{
+			if (reader.peek() != JsonToken.BEGIN_ARRAY){
+				read(reader, biconsumer);
+				return;
 			}
-		}else if(je.isJsonNull()){
-			String path = parent.substring(1);
-			if (predicate.test(path)){
-				biconsumer.accept(path, null);
+			reader.beginArray();
+			if (!reader.hasNext()){
+				reader.endArray();
+				biconsumer.accept("", new ArrayList<Object>());
+				return;
 			}
-		}else if(je.isJsonPrimitive()){
-			String path = parent.substring(1);
-			if (predicate.test(path)){
-				JsonPrimitive p = je.getAsJsonPrimitive();
-				if (p.isNumber()){
-					if (je.toString().indexOf(".") > 0) {
-						biconsumer.accept(path, p.getAsDouble());
-					}else{
-						if (p.getAsLong() <= Integer.MAX_VALUE) {
-							biconsumer.accept(path, p.getAsLong());
-						}else{
-							biconsumer.accept(path, p.getAsInt());
-						}
-					}
-				}else if(p.isBoolean()){
-					biconsumer.accept(path, p.getAsBoolean());
-				}else if(p.isString()){
-					dpMap.values().stream().filter(e->e.ptn.matcher(path).find()).findFirst()
-					.<Runnable>map(e->()->{
-						try{
-							switch(e.type){
-								case DATE:
-									biconsumer.accept(path, LocalDate.parse(p.getAsString(), e.formatter));
-									break;
-								case DATETIME:
-									biconsumer.accept(path, LocalDateTime.parse(p.getAsString(), e.formatter));
-									break;
-								case TIME:
-									biconsumer.accept(path, LocalTime.parse(p.getAsString(), e.formatter));
-									break;
-							}
-						}catch(DateTimeParseException x){
-							biconsumer.accept(path, p.getAsString());
-						}
-					}).orElse(()->{
-						biconsumer.accept(path, p.getAsString());
-					}).run();
+			int[] index = { 0 };
+			ParallelElementPipeline<Batch, List<Entry<String, Object>>> pipeline = new ParallelElementPipeline<>(()->{
+				if (!reader.hasNext()) return null;
+				Batch batch = new Batch(index[0], batchSize);
+				while(batch.elements.size() < batchSize && reader.hasNext()){
+					batch.elements.add(JsonParser.parseReader(reader));
 				}
+				index[0] += batch.elements.size();
+				return batch;
+			}, this::flatten, executor, queueSize, ordered);
+			try{
+				while(pipeline.next(list->list.forEach(e->biconsumer.accept(e.getKey(), e.getValue()))));
+			}finally{
+				pipeline.cancel();
 			}
+			reader.endArray();
+			if (reader.peek() != JsonToken.END_DOCUMENT){
+				throw new JsonSyntaxException("Did not consume the entire document.");
+			}
+		}catch(MalformedJsonException e){
+			throw new JsonSyntaxException(e);
+		}catch(IOException e){
+			throw new JsonIOException(e);
+		}
+	}
+	/** readParallel で解析を依頼する配列要素 */
+	private static final class Batch{
+		/** 先頭要素の添え字 */
+		final int first;
+		final List<JsonElement> elements;
+		Batch(int first, int batchSize){
+			this.first = first;
+			elements = new ArrayList<>(batchSize);
 		}
 	}
+	private List<Entry<String, Object>> flatten(Batch batch){
+		List<Entry<String, Object>> list = new ArrayList<>();
+		int index = batch.first;
+		for(JsonElement je:batch.elements){
+			new JsonFlatReader(this::stringValue).prefixIndex(index++)
+			.walk(je, (k, v)->list.add(new SimpleEntry<String, Object>(k, v)));
+		}
+		return list;
+	}
 
 	/**
 	 * JSON テキストを読込 InputStream→JSONキー＆値 EntryのStream生成
@@ -265,9 +317,7 @@ public class JsonView{
 	 * @return JSONキー＆値 EntryのStream生成
 	 */
 	public Stream<Entry<String, Object>> stream(InputStream in){
-	   Stream.Builder<Entry<String, Object>> builder = Stream.builder();
-		parseElement(JsonParser.parseReader(new InputStreamReader(in, StandardCharsets.UTF_8)), "", builder);
-	   return  builder.build();
+		return new JsonFlatReader(new JsonReader(new InputStreamReader(in, StandardCharsets.UTF_8)), this::stringValue).stream();
 	}
 	/**
 	 * JSON テキスト→JSONキー＆値 EntryのStream生成
@@ -275,9 +325,7 @@ public class JsonView{
 	 * @return JSONキー＆値 EntryのStream生成
 	 */
 	public Stream<Entry<String, Object>> stream(String jsontxt){
-	   Stream.Builder<Entry<String, Object>> builder = Stream.builder();
-		parseElement(JsonParser.parseReader(new StringReader(jsontxt)), "", builder);
-	   return  builder.build();
+		return new JsonFlatReader(new JsonReader(new StringReader(jsontxt)), this::stringValue).stream();
 	}
 	/**
 	 * JSON テキストを読込める java.io.Reader → JSONキー＆値 EntryのStream生成
@@ -285,66 +333,37 @@ public class JsonView{
 	 * @return JSONキー＆値 EntryのStream生成
 	 */
 	public Stream<Entry<String, Object>> stream(Reader reader){
-	   Stream.Builder<Entry<String, Object>> builder = Stream.builder();
-		parseElement(JsonParser.parseReader(reader), "", builder);
-		return  builder.build();
+		return new JsonFlatReader(new JsonReader(reader), this::stringValue).stream();
 	}
 
-	private void parseElement(JsonElement je, String parent, Stream.Builder<Entry<String, Object>> builder){
-		if (je.isJsonObject()) {
-			JsonObject jo = (JsonObject)je;
-			for(Entry<String, JsonElement> e:jo.entrySet()){
-				parseElement(e.getValue(), parent + "." + e.getKey(), builder);
-			}
-		}else if(je.isJsonArray()){
-			JsonArray ary = je.getAsJsonArray();
-			if (ary.size() > 0) {
-				int i = 0;
-				for(Iterator<JsonElement> it=ary.iterator();it.hasNext();i++){
-					parseElement(it.next(), parent + "[" + i + "]", builder);
-				}
-			}else{
-				builder.add(new SimpleEntry<String, Object>(parent.substring(1), new ArrayList<Object>()));
-			}
-		}else if(je.isJsonNull()){
-			builder.add(new SimpleEntry<String, Object>(parent.substring(1), null));
-		}else if(je.isJsonPrimitive()){
-			String path = parent.substring(1);
-			JsonPrimitive p = je.getAsJsonPrimitive();
-			if (p.isNumber()){
-				if (je.toString().indexOf(".") > 0) {
-					builder.add(new SimpleEntry<String, Object>(path, p.getAsDouble()));
-				}else{
-					if (p.getAsLong() <= Integer.MAX_VALUE) {
-						builder.add(new SimpleEntry<String, Object>(path, p.getAsLong()));
-					}else{
-						builder.add(new SimpleEntry<String, Object>(path, p.getAsInt()));
-					}
-				}
-			}else if(p.isBoolean()){
-				builder.add(new SimpleEntry<String, Object>(path, p.getAsBoolean()));
-			}else if(p.isString()){
-				dpMap.values().stream().filter(e->e.ptn.matcher(path).find()).findFirst()
-				.<Runnable>map(e->()->{
-					try{
-						switch(e.type){
-							case DATE:
-								builder.add(new SimpleEntry<String, Object>(path, LocalDate.parse(p.getAsString(), e.formatter)));
-								break;
-							case DATETIME:
-								builder.add(new SimpleEntry<String, Object>(path, LocalDateTime.parse(p.getAsString(), e.formatter)));
-								break;
-							case TIME:
-								builder.add(new SimpleEntry<String, Object>(path, LocalTime.parse(p.getAsString(), e.formatter)));
-								break;
-						}
-					}catch(DateTimeParseException x){
-						builder.add(new SimpleEntry<String, Object>(path, p.getAsString()));
-					}
-				}).orElse(()->{
-					builder.add(new SimpleEntry<String, Object>(path, p.getAsString()));
-				}).run();
+	/**
+	 * 文字列値の変換、日付時刻デシリアライザに一致するJSONパスは日付時刻に変換する.
+	 */
+	private Object stringValue(JsonFlatReader flat, String value){
+		PathRuleIndex<DateHandle> index = dateIndex();
+		if (index.isEmpty()) return value;
+		DateHandle h = index.find(flat.pathBuffer());
+		if (h==null) return value;
+		try{
+			switch(h.type){
+				case DATE:
+					return LocalDate.parse(value, h.formatter);
+				case DATETIME:
+					return LocalDateTime.parse(value, h.formatter);
+				case TIME:
+					return LocalTime.parse(value, h.formatter);
 			}
+		}catch(DateTimeParseException x){
+		}
+		return value;
+	}
+	private PathRuleIndex<DateHandle> dateIndex(){
+		PathRuleIndex<DateHandle> index = dateIndex;
+		if (index==null){
+			index = new PathRuleIndex<>(dpMap.values().stream()
+					.map(e->new SimpleEntry<Pattern, DateHandle>(e.ptn, e)).collect(Collectors.toList()));
+			dateIndex = index;
 		}
+		return index;
 	}
 }
@@ -0,0 +1,139 @@
+package org.yipuran.gsonhelper.util;
+
+import java.util.Arrays;
+
+/**
+ * JSONキー 組立てバッファ.
+ * <PRE>
+ * JSONツリーを辿りながら、キー "." 区切り、配列は添え字 [n] の JSONキーを１つの StringBuilder 上で
+ * push / pop で組立てる。ノード毎に文字列を生成せず、toString() を呼んだ時だけ String を生成する。
+ * CharSequence として、そのまま JSONキーの参照にも使える。
+ * 添え字を [*] にした JSONキーの形（items[*].price）も同時に組立てる。
+ * </PRE>
+ */
+final class PathBuffer implements CharSequence{
+	private StringBuilder sb = new StringBuilder(64);
+	private StringBuilder shape = new StringBuilder(64);
+	private int[] marks = new int[32];
+	private int[] shapemarks = new int[32];
+	private boolean[] indexed = new boolean[32];
+	private boolean[] starred = new boolean[32];
+	private int depth;
+	private int indexCount;
+	private int starCount;
+
+	/**
+	 * オブジェクトのキーを追加.
+	 * @param name キー
+	 */
+	void pushName(String name){
+		boolean root = depth==0;
+		mark(false);
+		if (name.contains("[*]")){
+			starred[depth-1] = true;
+			starCount++;
+		}
+		if (!root){
+			sb.append('.');
+			shape.append('.');
+		}
+		sb.append(name);
+		shape.append(name);
+	}
+	/**
+	 * 配列の添え字を追加.
+	 * @param index 添え字
+	 */
+	void pushIndex(int index){
+		mark(true);
+		sb.append('[').append(index).append(']');
+		shape.append("[*]");
+	}
+	/**
+	 * 最後に追加したキーまたは添え字を除去.
+	 */
+	void pop(){
+		depth--;
+		sb.setLength(marks[depth]);
+		shape.setLength(shapemarks[depth]);
+		if (indexed[depth]) indexCount--;
+		if (starred[depth]){
+			starred[depth] = false;
+			starCount--;
+		}
+	}
+	/**
+	 * 添え字を含むか
+	 * @return true=添え字を含む
+	 */
+	boolean hasIndex(){
+		return indexCount > 0;
+	}
+	/**
+	 * キーに文字として [*] を含むか、含む場合は添え字の [*] と区別できないので、形は使えない
+	 * @return true=キーに [*] を含む
+	 */
+	boolean hasStarName(){
+		return starCount > 0;
+	}
+	/**
+	 * 添え字を [*] にした JSONキーの形
+	 * @return JSONキーの形
+	 */
+	String shape(){
+		return shape.toString();
+	}
+	/**
+	 * JSONキーの形の hashCode、shape().hashCode() と同じ値を String を生成せずに求める.
+	 * @return hashCode
+	 */
+	int shapeHash(){
+		int h = 0;
+		for(int i=0, len=shape.length();i < len;i++){
+			h = 31 * h + shape.charAt(i);
+		}
+		return h;
+	}
+	/**
+	 * JSONキーの形が等しいか
+	 * @param s 比較する形
+	 * @return true=等しい
+	 */
+	boolean shapeEquals(String s){
+		int len = shape.length();
+		if (s.length() != len) return false;
+		for(int i=0;i < len;i++){
+			if (shape.charAt(i) != s.charAt(i)) return false;
+		}
+		return true;
+	}
+	private void mark(boolean index){
+		if (depth==marks.length){
+			marks = Arrays.copyOf(marks, depth*2);
+			shapemarks = Arrays.copyOf(shapemarks, depth*2);
+			indexed = Arrays.copyOf(indexed, depth*2);
+			starred = Arrays.copyOf(starred, depth*2);
+		}
+		marks[depth] = sb.length();
+		shapemarks[depth] = shape.length();
+		indexed[depth] = index;
+		if (index) indexCount++;
+		depth++;
+	}
+	@Override
+	public int length(){
+		return sb.length();
+	}
+	@Override
+	public char charAt(int index){
+		return sb.charAt(index);
+	}
+	@Override
+	public CharSequence subSequence(int start, int end){
+		return sb.subSequence(start, end);
+	}
+	@Override
+	public String toString(){
+		return sb.toString();
+	}
+}
@@ -0,0 +1,74 @@
+package org.yipuran.gsonhelper.util;
+
+/**
+ * JSONキーの列挙による JsonPathFilter.
+ */
+final class PathListFilter implements JsonPathFilter{
+	private static final int MISMATCH = 0;
+	private static final int EQUAL = 1;
+	private static final int BELOW = 2;
+	private static final int ABOVE = 3;
+	private String[] paths;
+	private boolean descendants;
+
+	/**
+	 * コンストラクタ.
+	 * @param paths JSONキー
+	 * @param descendants true=配下の値も対象にする
+	 */
+	PathListFilter(String[] paths, boolean descendants){
+		if (paths.length < 1) throw new IllegalArgumentException("path is required!");
+		this.paths = paths.clone();
+		this.descendants = descendants;
+	}
+	@Override
+	public boolean test(String path){
+		for(String p:paths){
+			int r = compare(p, path);
+			if (r==EQUAL || descendants && r==BELOW) return true;
+		}
+		return false;
+	}
+	@Override
+	public boolean mayMatchUnder(CharSequence prefix){
+		for(String p:paths){
+			int r = compare(p, prefix);
+			if (r==EQUAL || r==ABOVE || descendants && r==BELOW) return true;
+		}
+		return false;
+	}
+
+	/**
+	 * 指定JSONキーと JSONキーの位置関係.
+	 * @param ptn 指定JSONキー、[*] は任意の添え字
+	 * @param path JSONキー
+	 * @return EQUAL=一致、BELOW=path は ptn の配下、ABOVE=path は ptn の上位、MISMATCH=無関係
+	 */
+	private static int compare(String ptn, CharSequence path){
+		int plen = ptn.length();
+		int len = path.length();
+		int i = 0;
+		int j = 0;
+		while(i < plen && j < len){
+			char c = path.charAt(j);
+			if (c=='[' && ptn.startsWith("[*]", i)){
+				while(j < len && path.charAt(j) != ']') j++;
+				if (j==len) return MISMATCH;
+				i += 3;
+				j++;
+				continue;
+			}
+			if (ptn.charAt(i) != c) return MISMATCH;
+			i++;
+			j++;
+		}
+		if (i==plen && j==len) return EQUAL;
+		if (i==plen){
+			char c = path.charAt(j);
+			return c=='.' || c=='[' ? BELOW : MISMATCH;
+		}
+		if (j==0) return ABOVE;
+		char c = ptn.charAt(i);
+		return c=='.' || c=='[' ? ABOVE : MISMATCH;
+	}
+}
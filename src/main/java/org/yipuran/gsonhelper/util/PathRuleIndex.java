@@ -0,0 +1,230 @@
+package org.yipuran.gsonhelper.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * JSONパス Pattern ルール索引.
+ * <PRE>
+ * 登録された JSONパスの Pattern（find() で判定）を解析前に１度だけ整理して、パス毎の判定を高速化する。
+ *   ・"^a\\.b$" のように完全一致しか表さない Pattern は、HashMap で直接引く。
+ *   ・それ以外の Pattern は、全てを連結した１つの Pattern で先に判定し、どれにも一致しないパスを１回の find() で除外する。
+ *   ・一致したパスは、登録順に Pattern を判定して最初に一致したルールとする。
+ * 完全一致の Pattern は、他の Pattern より優先される。
+ * ただし、"^items\\[\\*\\]$" のように [*] を文字として含む完全一致は、形と区別できないので通常の Pattern として判定する。
+ * キーに文字として [*] を含む JSONパスも、形と区別できないので、キャッシュせずに JSONパスそのもので判定する。
+ *
+ * 判定結果は、配列の添え字を [*] にした JSONパスの形（items[*].price）毎にキャッシュし、
+ * 添え字だけが異なるパスは、２回目以降 Pattern を実行しない。
+ * 添え字の数字を判定し得る Pattern（\[0\] や、文字数を数える . など）は、形ではなくパス毎にキャッシュする。
+ * 添え字を問わない形として扱う Pattern は、以下の記述だけで構成されるものである。
+ *   ・添え字   \[\d+\]  \[\d*\]  \[[0-9]+\]  \[[0-9]*\]
+ *   ・数字、[ ] 以外の文字、英数字と [ ] 以外のエスケープ文字
+ *   ・.*  .+  ^  $  |  (  )  (?:
+ * </PRE>
+ * @param <V> ルールの値
+ */
+final class PathRuleIndex<V>{
+	private static final int CACHE_LIMIT = 4096;
+	private static final int SHAPE_SLOTS = 1024;
+	private static final Pattern UNCOMBINABLE = Pattern.compile("\\\\([1-9]|k<|Q)|\\(\\?<[a-zA-Z]");
+	private static final Pattern INDEX = Pattern.compile("\\[\\d+\\]");
+	private static final Pattern INDEX_TOKEN = Pattern.compile("\\\\\\[(\\\\d|\\[0-9\\])[+*]\\\\\\]");
+	private final Decision<V> none = new Decision<>(Integer.MAX_VALUE, null);
+	private Map<String, V> exactMap;
+	private Map<String, V> exactIndexMap;
+	private Pattern[] patterns;
+	private List<V> values;
+	private boolean[] agnostic;
+	private int agnosticCount;
+	private Pattern combinedAgnostic;
+	private Pattern combinedSensitive;
+	private ShapeEntry<V>[] shapeCache;
+	private Map<String, Decision<V>> pathCache;
+
+	/** 判定結果、order は登録順位（完全一致は -1） */
+	private static final class Decision<V>{
+		final int order;
+		final V value;
+		Decision(int order, V value){
+			this.order = order;
+			this.value = value;
+		}
+	}
+	private static final class ShapeEntry<V>{
+		final String shape;
+		final Decision<V> decision;
+		ShapeEntry(String shape, Decision<V> decision){
+			this.shape = shape;
+			this.decision = decision;
+		}
+	}
+
+	/**
+	 * コンストラクタ.
+	 * @param rules JSONパスPattern → ルールの値、登録順
+	 */
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	PathRuleIndex(Iterable<? extends Entry<Pattern, V>> rules){
+		exactMap = new HashMap<>();
+		exactIndexMap = new HashMap<>();
+		List<Pattern> plist = new ArrayList<>();
+		values = new ArrayList<>();
+		for(Entry<Pattern, V> e:rules){
+			String exact = exactPath(e.getKey());
+			if (exact != null && !exact.contains("[*]")){
+				(INDEX.matcher(exact).find() ? exactIndexMap : exactMap).putIfAbsent(exact, e.getValue());
+			}else{
+				plist.add(e.getKey());
+				values.add(e.getValue());
+			}
+		}
+		patterns = plist.toArray(new Pattern[plist.size()]);
+		agnostic = new boolean[patterns.length];
+		List<Pattern> alist = new ArrayList<>();
+		List<Pattern> slist = new ArrayList<>();
+		for(int i=0;i < patterns.length;i++){
+			agnostic[i] = indexAgnostic(patterns[i]);
+			(agnostic[i] ? alist : slist).add(patterns[i]);
+		}
+		agnosticCount = alist.size();
+		combinedAgnostic = combine(alist);
+		combinedSensitive = combine(slist);
+		shapeCache = new ShapeEntry[SHAPE_SLOTS];
+		pathCache = new ConcurrentHashMap<>();
+	}
+	/**
+	 * ルールが登録されていないか.
+	 * @return true=ルールなし
+	 */
+	boolean isEmpty(){
+		return exactMap.isEmpty() && exactIndexMap.isEmpty() && patterns.length==0;
+	}
+	/**
+	 * JSONパスに一致するルールを取得.
+	 * @param path 組立て中の JSONパス
+	 * @return ルールの値、一致するルールが無い場合は null
+	 */
+	V find(PathBuffer path){
+		if (path.hasStarName()) return pathDecision(path.toString()).value;
+		if (!exactIndexMap.isEmpty() && path.hasIndex()){
+			V v = exactIndexMap.get(path.toString());
+			if (v != null) return v;
+		}
+		Decision<V> d = shapeDecision(path);
+		if (agnosticCount < patterns.length && d.order > 0){
+			String p = path.toString();
+			Decision<V> s = pathCache.get(p);
+			if (s==null){
+				s = match(p, false);
+				if (pathCache.size() >= CACHE_LIMIT) pathCache.clear();
+				pathCache.put(p, s);
+			}
+			if (s.order < d.order) return s.value;
+		}
+		return d.value;
+	}
+	private Decision<V> shapeDecision(PathBuffer path){
+		int h = path.shapeHash();
+		int slot = (h ^ (h >>> 16)) & (SHAPE_SLOTS - 1);
+		ShapeEntry<V> e = shapeCache[slot];
+		if (e != null && e.shape.hashCode()==h && path.shapeEquals(e.shape)){
+			return e.decision;
+		}
+		String shape = path.shape();
+		V v = exactMap.get(shape);
+		Decision<V> d = v != null ? new Decision<>(-1, v) : agnosticCount > 0 ? match(path.toString(), true) : none;
+		shapeCache[slot] = new ShapeEntry<>(shape, d);
+		return d;
+	}
+	/**
+	 * 形を使わずに、JSONパスそのもので判定する（キーに [*] を含む場合）
+	 */
+	private Decision<V> pathDecision(String path){
+		V v = exactMap.get(path);
+		if (v==null) v = exactIndexMap.get(path);
+		if (v != null) return new Decision<>(-1, v);
+		Decision<V> a = agnosticCount > 0 ? match(path, true) : none;
+		Decision<V> s = agnosticCount < patterns.length ? match(path, false) : none;
+		return s.order < a.order ? s : a;
+	}
+	private Decision<V> match(String path, boolean agnosticRule){
+		Pattern combined = agnosticRule ? combinedAgnostic : combinedSensitive;
+		if (combined != null && !combined.matcher(path).find()) return none;
+		for(int i=0;i < patterns.length;i++){
+			if (agnostic[i]==agnosticRule && patterns[i].matcher(path).find()) return new Decision<>(i, values.get(i));
+		}
+		return none;
+	}
+
+	/**
+	 * 完全一致のみを表す Pattern（^リテラル$）であれば、そのリテラルを返す.
+	 */
+	private static String exactPath(Pattern ptn){
+		String s = ptn.pattern();
+		if (ptn.flags() != 0 || s.length() < 2 || s.charAt(0) != '^' || s.charAt(s.length()-1) != '$') return null;
+		StringBuilder sb = new StringBuilder();
+		int end = s.length()-1;
+		for(int i=1;i < end;i++){
+			char c = s.charAt(i);
+			if (c=='\\'){
+				if (i+1 >= end) return null;
+				char n = s.charAt(++i);
+				if (Character.isLetterOrDigit(n)) return null;
+				sb.append(n);
+			}else if(".[]{}()*+?|^$".indexOf(c) >= 0){
+				return null;
+			}else{
+				sb.append(c);
+			}
+		}
+		return sb.toString();
+	}
+	/**
+	 * 配列の添え字の数字によって判定結果が変わらない Pattern か.
+	 */
+	private static boolean indexAgnostic(Pattern ptn){
+		if ((ptn.flags() & (Pattern.COMMENTS | Pattern.LITERAL)) != 0) return false;
+		String s = INDEX_TOKEN.matcher(ptn.pattern()).replaceAll("");
+		int len = s.length();
+		for(int i=0;i < len;i++){
+			char c = s.charAt(i);
+			char n = i+1 < len ? s.charAt(i+1) : 0;
+			if (c=='\\'){
+				if (n==0 || Character.isLetterOrDigit(n) || n=='[' || n==']') return false;
+				i++;
+			}else if(c=='.'){
+				if (n != '*' && n != '+') return false;
+				i++;
+			}else if(c=='('){
+				if (n=='?'){
+					if (!s.startsWith("(?:", i)) return false;
+					i += 2;
+				}
+			}else if(Character.isDigit(c) || "[]{}?*+".indexOf(c) >= 0){
+				return false;
+			}
+		}
+		return true;
+	}
+	/**
+	 * 一致判定の前に除外する為の Pattern 連結.
+	 * ２つ未満、フラグ指定、後方参照、名前付きグループ、\Q 引用を含む場合は連結しない。
+	 */
+	private static Pattern combine(List<Pattern> list){
+		if (list.size() < 2) return null;
+		StringBuilder sb = new StringBuilder();
+		for(Pattern p:list){
+			String s = p.pattern();
+			if (p.flags() != 0 || UNCOMBINABLE.matcher(s).find()) return null;
+			if (sb.length() > 0) sb.append('|');
+			sb.append("(?:").append(s).append(')');
+		}
+		return Pattern.compile(sb.toString());
+	}
+}
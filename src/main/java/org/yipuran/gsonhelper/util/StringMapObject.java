@@ -1,11 +1,11 @@
 package org.yipuran.gsonhelper.util;
 
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Iterator;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 /**
  * gson fromJson で作成した Map＜String, Object＞ を閲覧する処理クラス.
  * <PRE>
@@ -13,6 +13,9 @@ import java.util.regex.Pattern;
  * Generic（総称型）メソッドで取得できる。
  *             public <T> T search(String...keys) ： JSONキーをJSONキー構造に沿って並べて指定
  *             public <T> T search(String path, Character separator) ： JSONパスとパスの区切り文字を指定
+ *             public <T> T search(StringMapPath path) ： コンパイル済 JSONパスを指定
+ *             public StringMapResult searchAll(String[] paths, Character separator) ： 複数の JSONパスを一括検索
+ *             public StringMapResult searchAll(Collection＜String＞ paths, Character separator) ： 複数の JSONパスを一括検索
  * 検索で取得できるオブジェクトは、
  *     String
  *     Long または、long
@@ -46,16 +49,12 @@ import java.util.regex.Pattern;
  */
 public final class StringMapObject{
 	private Map<String, Object> map;
-	private Pattern aryptn;
-	private Pattern idexptn;
 	/**
 	 * コンストラクタ.
 	 * @param map Map<String, Object>
 	 */
 	public StringMapObject(Map<String, Object> map){
 		this.map = map;
-		aryptn = Pattern.compile("^.+\\[\\d+\\]$");
-		idexptn = Pattern.compile("\\[\\d+\\]$");
 	}
 	/**
 	 * インスタンス生成
@@ -67,63 +66,152 @@ public final class StringMapObject{
 	}
 	/**
 	 * 検索（path指定）.
+	 * <PRE>
+	 * JSONパスは、StringMapPath としてキャッシュされ、同じ JSONパスの検索では分解を繰り返さない。
+	 * </PRE>
 	 * @param path JSONパス
 	 * @param separator JSONパス指定の区切り文字
 	 * @return T
 	 */
 	public <T> T search(String path, Character separator){
-		if (".-+*^$?{}[]()".contains(separator.toString())) {
-			return search(path.split("\\"+ separator.toString()));
-		}
-		return search(path.split(separator.toString()));
+		return search(StringMapPath.of(path, separator));
 	}
 	/**
 	 * 検索（path配列指定）.
 	 * @param keys JSONパス配列
 	 * @return T
 	 */
-	@SuppressWarnings("rawtypes")
 	public <T> T search(String...keys){
-		Iterator<String> it = Arrays.asList(keys).iterator();
-		String key = it.next();
-		if (aryptn.matcher(key).matches()){
-			Object o = map.get(key.replaceAll("\\[\\d+\\]$", ""));
-			if (!(o instanceof List)){
-				throw new IllegalArgumentException(key + " get Obejct is not List");
+		return search(StringMapPath.of(keys));
+	}
+	/**
+	 * 検索（コンパイル済 JSONパス指定）.
+	 * @param path StringMapPath
+	 * @return T
+	 * @since 4.25
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T search(StringMapPath path){
+		Object obj = map;
+		for(int i=0;i < path.keys.length;i++){
+			obj = step(i==0, path.keys[i], path.names[i], path.indexes[i], obj);
+		}
+		return obj==null ? null : (T)obj;
+	}
+	/**
+	 * 一括検索（path 配列指定）.
+	 * <PRE>
+	 * 複数の JSONパスを一度に検索する。JSONパスの共通の上位階層は１回だけ辿る。
+	 * 検索できなかった JSONパスは、StringMapResult#get で search と同じ例外がスローされる。
+	 * </PRE>
+	 * @param paths JSONパス
+	 * @param separator JSONパス指定の区切り文字
+	 * @return StringMapResult
+	 * @since 4.25
+	 */
+	public StringMapResult searchAll(String[] paths, Character separator){
+		return searchAll(Arrays.asList(paths), separator);
+	}
+	/**
+	 * 一括検索（path Collection指定）.
+	 * <PRE>
+	 * 複数の JSONパスを一度に検索する。JSONパスの共通の上位階層は１回だけ辿る。
+	 * 検索できなかった JSONパスは、StringMapResult#get で search と同じ例外がスローされる。
+	 * </PRE>
+	 * @param paths JSONパス
+	 * @param separator JSONパス指定の区切り文字
+	 * @return StringMapResult
+	 * @since 4.25
+	 */
+	public StringMapResult searchAll(Collection<String> paths, Character separator){
+		PathNode root = new PathNode(null, null, -1);
+		for(String p:paths){
+			StringMapPath path = StringMapPath.of(p, separator);
+			PathNode node = root;
+			for(int i=0;i < path.keys.length;i++){
+				node = node.child(path.keys[i], path.names[i], path.indexes[i]);
 			}
-			Matcher matcher = idexptn.matcher(key);
-			matcher.find();
-			int i = Integer.valueOf(matcher.group().replaceFirst("\\[", "").replaceFirst("\\]", ""));
-			return deep(it, ((List)o).get(i));
+			node.paths.add(p);
+		}
+		StringMapResult result = new StringMapResult();
+		for(String p:paths){
+			result.put(p, null);
 		}
-		if (!map.containsKey(key)) {
-			throw new IllegalArgumentException(key + " is not contains Key");
+		for(PathNode child:root.children.values()){
+			walk(child, true, map, result);
 		}
-		Object o = map.get(key);
-		return deep(it, o);
+		return result;
 	}
-
+	private void walk(PathNode node, boolean top, Object obj, StringMapResult result){
+		Object o;
+		try{
+			o = step(top, node.key, node.name, node.index, obj);
+		}catch(RuntimeException ex){
+			fail(node, ex, result);
+			return;
+		}
+		for(String p:node.paths){
+			result.put(p, o);
+		}
+		for(PathNode child:node.children.values()){
+			walk(child, false, o, result);
+		}
+	}
+	private void fail(PathNode node, RuntimeException ex, StringMapResult result){
+		for(String p:node.paths){
+			result.error(p, ex);
+		}
+		for(PathNode child:node.children.values()){
+			fail(child, ex, result);
+		}
+	}
+	/** 一括検索の JSONパス木 */
+	private static final class PathNode{
+		final String key;
+		final String name;
+		final int index;
+		final Map<String, PathNode> children = new LinkedHashMap<>();
+		final List<String> paths = new ArrayList<>();
+		PathNode(String key, String name, int index){
+			this.key = key;
+			this.name = name;
+			this.index = index;
+		}
+		PathNode child(String key, String name, int index){
+			PathNode node = children.get(key);
+			if (node==null){
+				node = new PathNode(key, name, index);
+				children.put(key, node);
+			}
+			return node;
+		}
+	}
+	/**
+	 * JSONパス１階層分の取得
+	 * @param top true=先頭のキー
+	 * @param key JSONキー
+	 * @param name 配列インデックスを除いたキー
+	 * @param index 配列インデックス、配列でなければ -1
+	 * @param obj 検索対象
+	 * @return 取得したObject
+	 */
 	@SuppressWarnings("unchecked")
-	private <T> T deep(Iterator<String> it, Object obj){
-		if (it.hasNext()){
-			String key = it.next();
-			if (aryptn.matcher(key).matches()){
-				Object o = ((Map<String, Object>)obj).get(key.replaceAll("\\[\\d+\\]$", ""));
-				if (!(o instanceof List)){
-					throw new IllegalArgumentException(key + " get Obejct is not List");
-				}
-				Matcher matcher = idexptn.matcher(key);
-				matcher.find();
-				int i = Integer.valueOf(matcher.group().replaceFirst("\\[", "").replaceFirst("\\]", ""));
-				return deep(it, ((List<Object>)o).get(i));
+	static Object step(boolean top, String key, String name, int index, Object obj){
+		if (index >= 0){
+			Object o = ((Map<String, Object>)obj).get(name);
+			if (!(o instanceof List)){
+				throw new IllegalArgumentException(key + " get Obejct is not List");
 			}
-			if (!(obj instanceof Map)){
-				throw new IllegalArgumentException(key + " is not Path key");
+			return ((List<Object>)o).get(index);
+		}
+		if (top){
+			if (!((Map<String, Object>)obj).containsKey(key)) {
+				throw new IllegalArgumentException(key + " is not contains Key");
 			}
-			Object o = ((Map<String, Object>)obj).get(key);
-			return deep(it, o);
+		}else if(!(obj instanceof Map)){
+			throw new IllegalArgumentException(key + " is not Path key");
 		}
-		return obj==null ? null : (T)obj;
+		return ((Map<String, Object>)obj).get(key);
 	}
 	/**
 	 * マップへのObject追加
@@ -0,0 +1,110 @@
+package org.yipuran.gsonhelper.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * StringMapObject 検索用のコンパイル済 JSONパス.
+ * <PRE>
+ * JSONパスを、キー名と配列インデックス [n] に分解した状態で保持する。
+ * StringMapObject#search(StringMapPath) で検索すると、Map の get と List の get だけで値を取得する。
+ *
+ * of(String, Character) で生成したインスタンスは、JSONパスと区切り文字毎にキャッシュされ、
+ * 同じ JSONパスの検索を繰り返しても、JSONパスの分解は１回だけになる。
+ *
+ *      StringMapPath path = StringMapPath.of("area.A.post[2]", '.');
+ *      String postname = sm.search(path);
+ * </PRE>
+ * @since 4.25
+ */
+public final class StringMapPath{
+	private static final int CACHE_LIMIT = 1024;
+	private static final Map<String, StringMapPath> cache = new ConcurrentHashMap<>();
+	final String[] keys;
+	final String[] names;
+	final int[] indexes;
+
+	private StringMapPath(String[] keys){
+		if (keys.length < 1) throw new IllegalArgumentException("path is required!");
+		this.keys = keys;
+		names = new String[keys.length];
+		indexes = new int[keys.length];
+		for(int i=0;i < keys.length;i++){
+			String key = keys[i];
+			int b = arrayBracket(key);
+			if (b > 0){
+				names[i] = key.substring(0, b);
+				indexes[i] = Integer.parseInt(key.substring(b+1, key.length()-1));
+			}else{
+				names[i] = key;
+				indexes[i] = -1;
+			}
+		}
+	}
+	/**
+	 * JSONパス（区切り文字指定）→ StringMapPath
+	 * @param path JSONパス
+	 * @param separator JSONパス指定の区切り文字
+	 * @return StringMapPath
+	 */
+	public static StringMapPath of(String path, Character separator){
+		String cachekey = separator + path;
+		StringMapPath p = cache.get(cachekey);
+		if (p==null){
+			p = new StringMapPath(split(path, separator));
+			if (cache.size() >= CACHE_LIMIT) cache.clear();
+			cache.put(cachekey, p);
+		}
+		return p;
+	}
+	/**
+	 * JSONキー配列 → StringMapPath
+	 * @param keys JSONキーをJSONキー構造に沿って並べた配列
+	 * @return StringMapPath
+	 */
+	public static StringMapPath of(String...keys){
+		return new StringMapPath(keys.clone());
+	}
+	/**
+	 * JSONキーの数
+	 * @return JSONキーの数
+	 */
+	public int size(){
+		return keys.length;
+	}
+	@Override
+	public String toString(){
+		return Arrays.toString(keys);
+	}
+
+	/**
+	 * 末尾が [n] のキーであれば、その '[' の位置、そうでなければ -1
+	 */
+	private static int arrayBracket(String key){
+		int len = key.length();
+		if (len < 4 || key.charAt(len-1) != ']') return -1;
+		int i = len - 2;
+		while(i > 0 && key.charAt(i) >= '0' && key.charAt(i) <= '9') i--;
+		return i > 0 && i < len-2 && key.charAt(i)=='[' ? i : -1;
+	}
+	/**
+	 * 区切り文字で分割、String#split と同様に末尾の空文字は除く
+	 */
+	private static String[] split(String path, char separator){
+		List<String> list = new ArrayList<>();
+		int start = 0;
+		int i;
+		while((i = path.indexOf(separator, start)) >= 0){
+			list.add(path.substring(start, i));
+			start = i + 1;
+		}
+		if (list.isEmpty()) return new String[]{ path };
+		list.add(path.substring(start));
+		int size = list.size();
+		while(size > 0 && list.get(size-1).isEmpty()) size--;
+		return list.subList(0, size).toArray(new String[size]);
+	}
+}
@@ -0,0 +1,70 @@
+package org.yipuran.gsonhelper.util;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * StringMapObject 一括検索の結果.
+ * <PRE>
+ * StringMapObject#searchAll で指定した JSONパス毎の検索結果を保持する。
+ * get で取得する時、検索で例外が発生していた JSONパスは、search と同じ例外をスローする。
+ *
+ *      StringMapResult result = sm.searchAll(new String[]{ "order.customer.name", "order.customer.address.city" }, '.');
+ *      String name = result.get("order.customer.name");
+ * </PRE>
+ * @since 4.25
+ */
+public final class StringMapResult{
+	private Map<String, Object> values = new LinkedHashMap<>();
+	private Map<String, RuntimeException> errors = new LinkedHashMap<>();
+
+	StringMapResult(){
+	}
+	void put(String path, Object value){
+		values.put(path, value);
+	}
+	void error(String path, RuntimeException ex){
+		values.remove(path);
+		errors.put(path, ex);
+	}
+	/**
+	 * 検索結果の取得.
+	 * @param path searchAll で指定した JSONパス
+	 * @return T
+	 * @throws IllegalArgumentException searchAll で指定していない JSONパス、または誤った JSONパス
+	 * @throws IndexOutOfBoundsException 配列で誤ったインデックスを指定した JSONパス
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T get(String path){
+		RuntimeException ex = errors.get(path);
+		if (ex != null) throw ex;
+		if (!values.containsKey(path)){
+			throw new IllegalArgumentException(path + " is not searched path");
+		}
+		Object o = values.get(path);
+		return o==null ? null : (T)o;
+	}
+	/**
+	 * 検索できた JSONパスか.
+	 * @param path searchAll で指定した JSONパス
+	 * @return true=検索できた
+	 */
+	public boolean isPresent(String path){
+		return values.containsKey(path);
+	}
+	/**
+	 * 検索できた JSONパス → 値 の Map
+	 * @return 変更不可の Map、searchAll で指定した順
+	 */
+	public Map<String, Object> toMap(){
+		return Collections.unmodifiableMap(values);
+	}
+	/**
+	 * 検索で例外が発生した JSONパス → 例外 の Map
+	 * @return 変更不可の Map
+	 */
+	public Map<String, RuntimeException> errors(){
+		return Collections.unmodifiableMap(errors);
+	}
+}
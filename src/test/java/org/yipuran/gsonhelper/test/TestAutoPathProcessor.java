@@ -0,0 +1,139 @@
+package org.yipuran.gsonhelper.test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Processor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import org.yipuran.gsonhelper.ExcludeWithAnotateStrategy;
+import org.yipuran.gsonhelper.processor.AutoPathProcessor;
+import org.yipuran.gsonhelper.serialize.AutoPathTypeAdapterFactory;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.TypeAdapterFactory;
+
+/**
+ * TestAutoPathProcessor.java
+ * AutoPathProcessor でコンパイルして、生成した TypeAdapter の JSON と、リフレクションの JSON の比較
+ * ・final でないクラスの型のフィールドは、値の実行時の型で出力する
+ * ・後のラウンドで生成されたクラスも GeneratedJsonAdapterFactory に含める
+ * ・＠JsonPath の空のキーはフィールドのエラーになる
+ */
+public class TestAutoPathProcessor{
+	private static final String[][] SOURCES = {
+		{ "Animal", "package demo;\npublic class Animal{\n\tString kind = \"animal\";\n}\n" },
+		{ "Dog", "package demo;\npublic class Dog extends Animal{\n\tString bark = \"woof\";\n}\n" },
+		{ "Ex", "package demo;\nimport org.yipuran.gsonhelper.Exclude;\n"
+			+ "public class Ex{\n\tAnimal pet = new Dog();\n\tAnimal animal = new Animal();\n\t@Exclude String b = \"b\";\n}\n" },
+		{ "Tree", "package demo;\nimport org.yipuran.gsonhelper.JsonPath;\n"
+			+ "public class Tree{\n\t@JsonPath(\"$.a.b\") String x = \"x\";\n\t@JsonPath(\"$.a\") Animal pet = new Dog();\n\tint n = 1;\n}\n" },
+	};
+
+	public static void main(String[] args) throws Exception{
+		Path dir = Files.createTempDirectory("processor");
+		try{
+			System.out.println("---- compile ----");
+			List<File> files = new ArrayList<>();
+			for(String[] s:SOURCES){
+				files.add(source(dir, s[0], s[1]));
+			}
+			if (!compile(dir, files, new AutoPathProcessor(), new LaterGenerator())) return;
+
+			try(URLClassLoader loader = new URLClassLoader(new URL[]{ dir.toUri().toURL() }, TestAutoPathProcessor.class.getClassLoader())){
+				TypeAdapterFactory factory = (TypeAdapterFactory)loader.loadClass("demo.GeneratedJsonAdapterFactory").newInstance();
+				Gson generated = new GsonBuilder().serializeNulls()
+						.registerTypeAdapterFactory(factory)
+						.registerTypeAdapterFactory(new AutoPathTypeAdapterFactory())
+						.create();
+				Gson reflect = new GsonBuilder().serializeNulls()
+						.addSerializationExclusionStrategy(new ExcludeWithAnotateStrategy())
+						.registerTypeAdapterFactory(new AutoPathTypeAdapterFactory())
+						.create();
+				for(String name:new String[]{ "demo.Ex", "demo.Tree", "demo.Later" }){
+					Object o = loader.loadClass(name).newInstance();
+					System.out.println("---- " + name + " ----");
+					System.out.println("generated : " + generated.toJson(o));
+					System.out.println("reflect   : " + reflect.toJson(o));
+				}
+			}
+
+			System.out.println("---- compile Bad.java ----");
+			File bad = source(dir, "Bad", "package bad;\nimport org.yipuran.gsonhelper.JsonPath;\n"
+				+ "public class Bad{\n\t@JsonPath(\"$..a\") String x;\n}\n");
+			System.out.println("result : " + compile(dir, Collections.singletonList(bad), new AutoPathProcessor()));
+		}finally{
+			try(Stream<Path> stream = Files.walk(dir)){
+				stream.sorted((a, b)->b.compareTo(a)).forEach(p->p.toFile().delete());
+			}
+		}
+	}
+	private static File source(Path dir, String name, String code) throws IOException{
+		Path path = dir.resolve(name + ".java");
+		Files.write(path, code.getBytes(StandardCharsets.UTF_8));
+		return path.toFile();
+	}
+	private static boolean compile(Path dir, List<File> files, Processor...processors) throws IOException{
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+		try(StandardJavaFileManager fm = compiler.getStandardFileManager(diagnostics, null, StandardCharsets.UTF_8)){
+			List<String> options = Arrays.asList("-d", dir.toString(), "-s", dir.toString(),
+					"-classpath", System.getProperty("java.class.path"));
+			JavaCompiler.CompilationTask task = compiler.getTask(null, fm, diagnostics, options, null, fm.getJavaFileObjectsFromFiles(files));
+			task.setProcessors(Arrays.asList(processors));
+			boolean result = task.call();
+			for(Diagnostic<? extends JavaFileObject> d:diagnostics.getDiagnostics()){
+				System.out.println(d.getKind() + " : " + d.getMessage(null)
+					+ (d.getSource()==null ? "" : " (" + new File(d.getSource().getName()).getName() + ":" + d.getLineNumber() + ")"));
+			}
+			return result;
+		}
+	}
+
+	/**
+	 * 最初のラウンドで、＠Exclude 付きのクラス demo.Later を生成する注釈プロセッサ
+	 */
+	@SupportedAnnotationTypes("*")
+	public static class LaterGenerator extends AbstractProcessor{
+		private boolean done;
+		@Override
+		public SourceVersion getSupportedSourceVersion(){
+			return SourceVersion.latestSupported();
+		}
+		@Override
+		public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv){
+			if (done) return false;
+			done = true;
+			try(Writer w = processingEnv.getFiler().createSourceFile("demo.Later").openWriter()){
+				w.write("package demo;\nimport org.yipuran.gsonhelper.Exclude;\n"
+					+ "public class Later{\n\tString name = \"later\";\n\t@Exclude int hidden = 1;\n}\n");
+			}catch(IOException e){
+				throw new RuntimeException(e.getMessage(), e);
+			}
+			return false;
+		}
+	}
+}
@@ -0,0 +1,91 @@
+package org.yipuran.gsonhelper.test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.yipuran.gsonhelper.array.ArrayCheckpoint;
+import org.yipuran.gsonhelper.array.JsonArrayParseBuilder;
+import org.yipuran.gsonhelper.array.JsonArrayParser;
+
+import com.google.gson.GsonBuilder;
+
+/**
+ * TestCheckpoint.java
+ * execute(Path, long, Consumer, Consumer) の再開位置の通知と、resume の再開位置の確認
+ */
+public class TestCheckpoint{
+	@SuppressWarnings("rawtypes")
+	public static void main(String[] args) throws IOException{
+		JsonArrayParser<Map> parser = JsonArrayParseBuilder.<Map>of(new GsonBuilder(), Map.class).path("items").create();
+		Path path = Files.createTempFile("checkpoint", ".json");
+		try{
+			StringBuilder sb = new StringBuilder("{\"name\":\"checkpoint\",\"items\":[");
+			for(int i=0;i < 20000;i++){
+				if (i > 0) sb.append(",\n");
+				sb.append("{\"n\":").append(i).append(",\"s\":\"abcdefghij\"}");
+			}
+			Files.write(path, sb.append("]}").toString().getBytes(StandardCharsets.UTF_8));
+
+			System.out.println("---- execute : interval 5000 ----");
+			List<ArrayCheckpoint> checkpoints = new ArrayList<>();
+			List<Object> all = new ArrayList<>();
+			parser.execute(path, 5000, checkpoints::add, m->all.add(m.get("n")));
+			checkpoints.forEach(System.out::println);
+			System.out.println("elements : " + all.size());
+
+			ArrayCheckpoint from = checkpoints.get(1);
+			System.out.println("---- resume from " + from.getCount() + " ----");
+			List<Object> rest = new ArrayList<>();
+			parser.resume(path, from, 5000, c->System.out.println("  " + c), m->rest.add(m.get("n")));
+			System.out.println("resumed : " + rest.size() + " elements, same as execute : "
+				+ rest.equals(all.subList((int)from.getCount(), all.size())));
+
+			System.out.println("---- resume from the last checkpoint ----");
+			ArrayCheckpoint last = checkpoints.get(checkpoints.size()-1);
+			List<Object> none = new ArrayList<>();
+			parser.resume(path, last, 5000, c->{}, m->none.add(m));
+			System.out.println("resumed : " + none.size() + " elements");
+
+			System.out.println("---- offset is not an element boundary ----");
+			resume(parser, path, ArrayCheckpoint.of(from.getFileSize(), from.getLastModified(), from.getOffset() - 3
+				, from.getIndex(), from.getCount(), from.getDigest()));
+
+			System.out.println("---- last modified time changed ----");
+			FileTime time = Files.getLastModifiedTime(path);
+			Files.setLastModifiedTime(path, FileTime.fromMillis(time.toMillis() + 60000));
+			resume(parser, path, from);
+			Files.setLastModifiedTime(path, time);
+
+			System.out.println("---- content changed before the offset (same size, same time) ----");
+			try(FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)){
+				channel.write(ByteBuffer.wrap("X".getBytes(StandardCharsets.UTF_8)), from.getOffset() - 3);
+			}
+			Files.setLastModifiedTime(path, time);
+			resume(parser, path, from);
+
+			System.out.println("---- file size changed ----");
+			Files.write(path, " ".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+			resume(parser, path, from);
+		}finally{
+			Files.delete(path);
+		}
+	}
+	@SuppressWarnings("rawtypes")
+	private static void resume(JsonArrayParser<Map> parser, Path path, ArrayCheckpoint from){
+		try{
+			parser.resume(path, from, 5000, c->{}, m->{});
+			System.out.println("resumed");
+		}catch(IllegalArgumentException e){
+			System.out.println(e.getClass().getSimpleName() + " : " + e.getMessage());
+		}
+	}
+}
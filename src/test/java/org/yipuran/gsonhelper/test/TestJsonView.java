@@ -0,0 +1,50 @@
+package org.yipuran.gsonhelper.test;
+
+import java.io.StringReader;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Pattern;
+
+import org.yipuran.gsonhelper.util.JsonView;
+
+/**
+ * TestJsonView.java
+ */
+public class TestJsonView{
+	public static void main(String[] args){
+		String json = "{\"items\":[{\"d\":\"2019/03/06 21:02:33\"},{\"d\":\"2019/03/07 21:02:33\"},{\"d\":\"2019/03/08 21:02:33\"}]"
+				+ ",\"items[*]\":{\"d\":\"2019/03/09 21:02:33\"}}";
+		DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy/MM/dd HH:mm:ss");
+
+		System.out.println("---- ^items\\[\\d+\\]\\.d$ : items[0].d, items[1].d, items[2].d → LocalDateTime ----");
+		new JsonView().addDatetimeDeserilaize(Pattern.compile("^items\\[\\d+\\]\\.d$"), formatter)
+		.read(json, (k, v)->System.out.println(k + " --> " + v + " (" + v.getClass().getSimpleName() + ")"));
+
+		System.out.println("---- ^items\\[\\*\\]\\.d$ : キーが items[*] の d だけ → LocalDateTime ----");
+		new JsonView().addDatetimeDeserilaize(Pattern.compile("^items\\[\\*\\]\\.d$"), formatter)
+		.read(json, (k, v)->System.out.println(k + " --> " + v + " (" + v.getClass().getSimpleName() + ")"));
+
+		System.out.println("---- readParallel と read の比較 ----");
+		String array = "[{\"d\":\"2019/03/06 21:02:33\",\"n\":1,\"x\":1.5,\"b\":true,\"z\":null,\"e\":[],\"o\":{}}"
+				+ ",[1,[2,{\"d\":\"2019/03/07 21:02:33\"}]],\"s\",123456789012345678901,{\"a\":{\"b\":[[]]}}]";
+		JsonView view = new JsonView().addDatetimeDeserilaize(Pattern.compile("^\\[\\d+\\](\\.|\\[\\d+\\])*d$"), formatter);
+		List<String> sequential = new ArrayList<>();
+		view.read(array, (k, v)->sequential.add(k + " --> " + v + (v==null ? "" : " (" + v.getClass().getSimpleName() + ")")));
+		sequential.forEach(System.out::println);
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try{
+			for(boolean ordered:new boolean[]{ true, false }){
+				List<String> parallel = new ArrayList<>();
+				view.readParallel(new StringReader(array), executor, 2, 1, ordered
+					, (k, v)->parallel.add(k + " --> " + v + (v==null ? "" : " (" + v.getClass().getSimpleName() + ")")));
+				System.out.println("ordered=" + ordered + " : " + (ordered ? parallel.equals(sequential)
+					: parallel.size()==sequential.size() && parallel.containsAll(sequential)));
+			}
+		}finally{
+			executor.shutdown();
+		}
+	}
+}
@@ -0,0 +1,70 @@
+package org.yipuran.gsonhelper.test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.yipuran.gsonhelper.array.JsonArrayParseBuilder;
+import org.yipuran.gsonhelper.array.JsonArrayParser;
+
+import com.google.gson.GsonBuilder;
+import com.google.gson.stream.JsonReader;
+
+/**
+ * TestMappedArray.java
+ * メモリマップの execute(Path, Consumer) と、JsonReader の execute(JsonReader, Consumer) の比較
+ */
+public class TestMappedArray{
+	@SuppressWarnings("rawtypes")
+	public static void main(String[] args) throws IOException{
+		JsonArrayParser<Map> parser = JsonArrayParseBuilder.<Map>of(new GsonBuilder(), Map.class).path("items").create();
+		String[] jsons = {
+			"{\"items\":[{\"a\":1},{\"a\":2}]}",
+			"{\"skip\":{\"x\":[1,{\"y\":\"]\"}]},\"items\":[{\"a\":1},3,{\"a\":2}],\"tail\":true}",
+			"{\"items\":[{\"a\":1},{\"a\":2}]",
+			"{\"items\":[{\"a\":1},{\"a\":2}",
+			"",
+			"   ",
+			"{\"items\" [{\"a\":1}]}",
+			"{\"items\":[{\"a\":1} {\"a\":2}]}",
+			"{\"skip\":1 \"items\":[{\"a\":1}]}",
+			"{\"skip\":[1,2},\"items\":[{\"a\":1}]}",
+			"{\"items\":[{\"a\":1}]} {}",
+		};
+		for(String json:jsons){
+			System.out.println("---- " + json + " ----");
+			Path path = Files.createTempFile("mapped", ".json");
+			try{
+				Files.write(path, json.getBytes(StandardCharsets.UTF_8));
+				List<Object> list = new ArrayList<>();
+				try{
+					parser.execute(new JsonReader(new StringReader(json)), list::add);
+					System.out.println("JsonReader : " + list);
+				}catch(RuntimeException e){
+					System.out.println("JsonReader : " + e.getCause().getClass().getSimpleName() + " " + e.getMessage());
+				}
+				list.clear();
+				try{
+					parser.execute(path, list::add);
+					System.out.println("mmap       : " + list);
+				}catch(RuntimeException e){
+					System.out.println("mmap       : " + e.getCause().getClass().getSimpleName() + " " + e.getMessage());
+				}
+				try(Stream<Map> stream = parser.parallelStream(path)){
+					System.out.println("parallel   : " + stream.collect(Collectors.toList()));
+				}catch(RuntimeException e){
+					System.out.println("parallel   : " + e.getCause().getClass().getSimpleName() + " " + e.getMessage());
+				}
+			}finally{
+				Files.delete(path);
+			}
+		}
+	}
+}
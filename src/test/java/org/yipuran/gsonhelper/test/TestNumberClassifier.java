@@ -0,0 +1,115 @@
+package org.yipuran.gsonhelper.test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.yipuran.gsonhelper.NumberClassifier;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+/**
+ * TestNumberClassifier.java
+ * NumberClassifier の判定結果と、数値の多いテレメトリ JSON での処理時間の比較
+ *   toString  : JsonElement のツリーから toString().indexOf(".") で判定して getAsLong() / getAsDouble()
+ *   classify  : JsonReader の nextString() を NumberClassifier.parse
+ *   tokens    : 数値トークン文字列だけの NumberClassifier.parse（判定の処理時間）
+ *   parse     : 数値トークン文字列だけの Long.parseLong / Double.parseDouble（判定しない場合）
+ */
+public class TestNumberClassifier{
+	public static void main(String[] args) throws IOException{
+		String[] tokens = {
+			"0", "-12", "2147483648", "9223372036854775807", "9223372036854775808", "-9223372036854775809",
+			"1.5", "1e3", "-0.0", "1.50000000000000000000",
+			"1e-400", "0.1000000000000000055511151231257827", "12345678901234567.89", "1e-320", "1e400",
+		};
+		for(String t:tokens){
+			Number n = NumberClassifier.parse(t);
+			System.out.println(String.format("%-40s %-12s %s", t, n.getClass().getSimpleName(), n));
+		}
+
+		int count = args.length > 0 ? Integer.parseInt(args[0]) : 200000;
+		String json = telemetry(count);
+		System.out.println("---- telemetry " + count + " records, " + json.length() + " chars ----");
+		List<String> list = numberTokens(json);
+		for(int r=0;r < 5;r++){
+			long t0 = System.nanoTime();
+			double a = byToString(json);
+			long t1 = System.nanoTime();
+			double b = byClassifier(json);
+			long t2 = System.nanoTime();
+			double c = 0;
+			for(String s:list) c += NumberClassifier.parse(s).doubleValue();
+			long t3 = System.nanoTime();
+			double d = 0;
+			for(String s:list) d += s.indexOf('.') < 0 && s.indexOf('e') < 0 ? Long.parseLong(s) : Double.parseDouble(s);
+			long t4 = System.nanoTime();
+			System.out.println(String.format("toString %5d ms  classify %5d ms  tokens %5d ms  parse %5d ms  (%s %s %s %s)",
+				(t1-t0)/1000000, (t2-t1)/1000000, (t3-t2)/1000000, (t4-t3)/1000000, a==b, b==c, c==d, list.size()));
+		}
+	}
+	private static String telemetry(int count){
+		Random random = new Random(1);
+		StringBuilder sb = new StringBuilder("[");
+		for(int i=0;i < count;i++){
+			if (i > 0) sb.append(',');
+			sb.append("{\"ts\":").append(1700000000000L + i * 1000L)
+			.append(",\"seq\":").append(i)
+			.append(",\"temp\":").append(Math.round(random.nextGaussian() * 1000 + 2000) / 100.0)
+			.append(",\"ratio\":").append(random.nextDouble() / 1000)
+			.append(",\"energy\":").append(random.nextInt(1000)).append("e3")
+			.append(",\"bytes\":").append(random.nextInt(Integer.MAX_VALUE))
+			.append('}');
+		}
+		return sb.append(']').toString();
+	}
+	private static List<String> numberTokens(String json) throws IOException{
+		List<String> list = new ArrayList<>();
+		try(JsonReader reader = new JsonReader(new StringReader(json))){
+			reader.beginArray();
+			while(reader.hasNext()){
+				reader.beginObject();
+				while(reader.hasNext()){
+					reader.nextName();
+					list.add(reader.nextString());
+				}
+				reader.endObject();
+			}
+			reader.endArray();
+		}
+		return list;
+	}
+	private static double byToString(String json){
+		double sum = 0;
+		for(JsonElement je:JsonParser.parseString(json).getAsJsonArray()){
+			for(Map.Entry<String, JsonElement> e:je.getAsJsonObject().entrySet()){
+				JsonPrimitive p = e.getValue().getAsJsonPrimitive();
+				sum += p.toString().indexOf(".") > 0 ? p.getAsDouble() : p.getAsLong();
+			}
+		}
+		return sum;
+	}
+	private static double byClassifier(String json) throws IOException{
+		double sum = 0;
+		try(JsonReader reader = new JsonReader(new StringReader(json))){
+			reader.beginArray();
+			while(reader.hasNext()){
+				reader.beginObject();
+				while(reader.hasNext()){
+					reader.nextName();
+					if (reader.peek()==JsonToken.NUMBER) sum += NumberClassifier.parse(reader.nextString()).doubleValue();
+				}
+				reader.endObject();
+			}
+			reader.endArray();
+		}
+		return sum;
+	}
+}